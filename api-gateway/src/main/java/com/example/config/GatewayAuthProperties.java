@@ -0,0 +1,29 @@
+package com.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "gateway.auth")
+public class GatewayAuthProperties {
+
+    /**
+     * Base64 HMAC key shared with user-service's JwtService.
+     */
+    private String jwtSecret;
+
+    /**
+     * Paths that skip token verification, either "/pattern" or "METHOD /pattern".
+     */
+    private List<String> publicPaths = new ArrayList<>();
+
+    private long tokenCacheMaxSize = 10_000;
+    private Duration tokenCacheTtl = Duration.ofMinutes(5);
+
+    private String userHeader = "X-User-Name";
+    private String roleHeader = "X-User-Role";
+}
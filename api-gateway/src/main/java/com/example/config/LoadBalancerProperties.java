@@ -0,0 +1,33 @@
+package com.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "gateway.loadbalancer")
+public class LoadBalancerProperties {
+
+    /**
+     * How quickly old latency samples stop influencing an instance's EWMA.
+     */
+    private Duration decayTime = Duration.ofSeconds(10);
+
+    /**
+     * Ramp-up period during which a newly seen instance receives a reduced share of traffic.
+     */
+    private Duration slowStart = Duration.ofSeconds(30);
+
+    /**
+     * Latency assumed for an instance before its first response is observed.
+     */
+    private Duration initialLatency = Duration.ofMillis(50);
+
+    /**
+     * Latency charged for a failed or 5xx call, so fast failures don't attract traffic.
+     */
+    private Duration failurePenalty = Duration.ofSeconds(1);
+
+    private Duration idleEviction = Duration.ofMinutes(5);
+}
@@ -0,0 +1,14 @@
+package com.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "gateway.views.order")
+public class OrderViewProperties {
+    private Duration orderTimeout = Duration.ofSeconds(1);
+    private Duration paymentTimeout = Duration.ofSeconds(1);
+    private Duration inventoryTimeout = Duration.ofMillis(500);
+}
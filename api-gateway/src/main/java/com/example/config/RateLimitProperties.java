@@ -0,0 +1,36 @@
+package com.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * Tokens per second for routes whose RequestRateLimiter filter sets no limits of its own.
+     */
+    private int replenishRate = 20;
+    private int burstCapacity = 40;
+
+    /**
+     * A bucket untouched this long is dropped. Keep it above burst-capacity / replenish-rate
+     * so a dropped bucket would have refilled anyway.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(5);
+
+    /**
+     * Hard cap on tracked clients across all routes; least recently used buckets go first.
+     */
+    private long maxBuckets = 100_000;
+
+    /**
+     * Proxies in front of the gateway whose X-Forwarded-For entries are trusted when keying
+     * anonymous clients; 0 keys by the TCP peer address.
+     */
+    private int trustedProxies = 0;
+
+    private boolean includeHeaders = true;
+}
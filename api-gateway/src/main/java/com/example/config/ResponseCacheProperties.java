@@ -0,0 +1,15 @@
+package com.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@Data
+@ConfigurationProperties(prefix = "gateway.response-cache")
+public class ResponseCacheProperties {
+
+    /**
+     * Upper bound on the memory held by cached bodies across all routes.
+     */
+    private DataSize maxTotalSize = DataSize.ofMegabytes(64);
+}
@@ -1,14 +1,32 @@
 package com.example.controller;
 
-import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Mono;
 
 @RestController
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
 public class FallbackController {
 
-    @GetMapping("/order-fallback")
+    @RequestMapping("/order-fallback")
     public Mono<String> orderServiceFallback() {
         return Mono.just("Order Service is currently unavailable. Please try again later.");
     }
+
+    @RequestMapping("/user-fallback")
+    public Mono<String> userServiceFallback() {
+        return Mono.just("User Service is currently unavailable. Please try again later.");
+    }
+
+    @RequestMapping("/shopping-fallback")
+    public Mono<String> shoppingServiceFallback() {
+        return Mono.just("Shopping Service is currently unavailable. Please try again later.");
+    }
+
+    @RequestMapping("/payment-fallback")
+    public Mono<String> paymentServiceFallback() {
+        return Mono.just("Payment Service is currently unavailable. Please try again later.");
+    }
 }
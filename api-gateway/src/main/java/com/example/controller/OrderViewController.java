@@ -0,0 +1,159 @@
+package com.example.controller;
+
+import com.example.config.GatewayAuthProperties;
+import com.example.config.OrderViewProperties;
+import com.example.dto.OrderView;
+import com.example.security.AuthenticatedUser;
+import com.example.security.JwtVerifier;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.jsonwebtoken.JwtException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Aggregates the order page in one round trip: the order, its payments and the SKU's
+ * inventory are fetched concurrently, each with its own timeout, and merged into one
+ * document that is returned even if some legs fail.
+ * <p>
+ * These calls bypass the gateway routes, so the token is verified here rather than by
+ * the JWT global filter.
+ */
+@RestController
+@RequestMapping("/api/views")
+@CrossOrigin(originPatterns = "http://localhost:5173", allowCredentials = "true")
+@Slf4j
+public class OrderViewController {
+
+    private final WebClient webClient;
+    private final JwtVerifier jwtVerifier;
+    private final GatewayAuthProperties authProperties;
+    private final OrderViewProperties properties;
+
+    public OrderViewController(WebClient.Builder loadBalancedWebClientBuilder,
+                               JwtVerifier jwtVerifier,
+                               GatewayAuthProperties authProperties,
+                               OrderViewProperties properties) {
+        this.webClient = loadBalancedWebClientBuilder.build();
+        this.jwtVerifier = jwtVerifier;
+        this.authProperties = authProperties;
+        this.properties = properties;
+    }
+
+    @GetMapping("/order/{orderNumber}")
+    public Mono<ResponseEntity<OrderView>> getOrderView(
+            @PathVariable String orderNumber,
+            @RequestParam(required = false) String sku,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        AuthenticatedUser user = authenticate(authorization);
+        if (user == null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+        }
+
+        Mono<Leg> order = fetch(user, "http://order-service/api/orders/{id}", orderNumber,
+                properties.getOrderTimeout()).cache();
+        Mono<Leg> payments = fetch(user, "http://payment-service/api/payments/{id}", orderNumber,
+                properties.getPaymentTimeout());
+
+        // With the SKU supplied all three legs start together; otherwise inventory waits for the order
+        Mono<Leg> inventory = sku != null
+                ? fetch(user, "http://shopping-service/api/inventory/{id}", sku, properties.getInventoryTimeout())
+                : order.flatMap(result -> {
+                    JsonNode skuCode = result.body() != null ? result.body().get("skuCode") : null;
+                    if (skuCode == null || skuCode.isNull()) {
+                        return Mono.just(Leg.failed("skuCode unavailable"));
+                    }
+                    return fetch(user, "http://shopping-service/api/inventory/{id}", skuCode.asText(),
+                            properties.getInventoryTimeout());
+                });
+
+        return Mono.zip(order, payments, inventory).map(legs -> {
+            if (legs.getT1().notFound()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).<OrderView>build();
+            }
+            Map<String, String> errors = new LinkedHashMap<>();
+            legs.getT1().addErrorTo("order", errors);
+            legs.getT2().addErrorTo("payments", errors);
+            legs.getT3().addErrorTo("inventory", errors);
+            return ResponseEntity.ok(new OrderView(orderNumber, legs.getT1().body(), legs.getT2().body(),
+                    legs.getT3().body(), errors, errors.isEmpty()));
+        });
+    }
+
+    private Mono<Leg> fetch(AuthenticatedUser user, String uri, String id, Duration timeout) {
+        return webClient.get()
+                .uri(uri, id)
+                .headers(headers -> {
+                    headers.set(authProperties.getUserHeader(), user.username());
+                    if (user.role() != null) {
+                        headers.set(authProperties.getRoleHeader(), user.role());
+                    }
+                })
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .timeout(timeout)
+                .map(Leg::ok)
+                .defaultIfEmpty(Leg.failed("empty response"))
+                .onErrorResume(e -> {
+                    log.debug("Order view leg {} failed: {}", uri, e.toString());
+                    return Mono.just(Leg.from(e));
+                });
+    }
+
+    private AuthenticatedUser authenticate(String authorization) {
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            return null;
+        }
+        try {
+            return jwtVerifier.verify(authorization.substring(7));
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private record Leg(JsonNode body, String error, boolean notFound) {
+
+        static Leg ok(JsonNode body) {
+            return new Leg(body, null, false);
+        }
+
+        static Leg failed(String error) {
+            return new Leg(null, error, false);
+        }
+
+        static Leg from(Throwable e) {
+            if (e instanceof TimeoutException) {
+                return failed("timed out");
+            }
+            if (e instanceof WebClientResponseException.NotFound) {
+                return new Leg(null, "not found", true);
+            }
+            if (e instanceof WebClientResponseException response) {
+                return failed("upstream status " + response.getStatusCode().value());
+            }
+            return failed("unavailable");
+        }
+
+        void addErrorTo(String leg, Map<String, String> errors) {
+            if (error != null) {
+                errors.put(leg, error);
+            }
+        }
+    }
+}
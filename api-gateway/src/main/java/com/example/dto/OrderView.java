@@ -0,0 +1,17 @@
+package com.example.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Map;
+
+/**
+ * Merged order page document. Any leg that failed or timed out is null and listed in
+ * {@code errors}; {@code complete} is false whenever that happens.
+ */
+public record OrderView(String orderNumber,
+                        JsonNode order,
+                        JsonNode payments,
+                        JsonNode inventory,
+                        Map<String, String> errors,
+                        boolean complete) {
+}
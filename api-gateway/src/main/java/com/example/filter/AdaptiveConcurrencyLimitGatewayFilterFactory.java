@@ -0,0 +1,110 @@
+package com.example.filter;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sheds load for a route with an immediate 503 once its adaptive concurrency limit is reached,
+ * instead of letting requests queue behind a slow backend. Place it before the route's
+ * CircuitBreaker filter so the limit reacts to timeouts and 5xx responses.
+ */
+@Component
+public class AdaptiveConcurrencyLimitGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<AdaptiveConcurrencyLimitGatewayFilterFactory.Config> {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    public AdaptiveConcurrencyLimitGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> filter(exchange, chain, config);
+    }
+
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain, Config config) {
+        AdaptiveConcurrencyLimiter limiter = limiters.computeIfAbsent(routeId(exchange),
+                routeId -> register(routeId, new AdaptiveConcurrencyLimiter(config)));
+
+        int inFlight = limiter.tryAcquire();
+        if (inFlight < 0) {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+            return response.setComplete();
+        }
+
+        long start = System.nanoTime();
+        return chain.filter(exchange).doFinally(signal -> {
+            limiter.release();
+            if (signal == SignalType.CANCEL) {
+                return;
+            }
+            HttpStatusCode status = exchange.getResponse().getStatusCode();
+            boolean dropped = signal == SignalType.ON_ERROR || (status != null && isOverloadStatus(status));
+            limiter.onSample(System.nanoTime() - start, inFlight, dropped);
+        });
+    }
+
+    private AdaptiveConcurrencyLimiter register(String routeId, AdaptiveConcurrencyLimiter limiter) {
+        Gauge.builder("gateway.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::limit)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::inFlight)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.min.rtt", limiter, AdaptiveConcurrencyLimiter::minRttMillis)
+                .tag("route", routeId)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        FunctionCounter.builder("gateway.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::rejected)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    private static boolean isOverloadStatus(HttpStatusCode status) {
+        int value = status.value();
+        return value == HttpStatus.SERVICE_UNAVAILABLE.value()
+                || value == HttpStatus.GATEWAY_TIMEOUT.value()
+                || value == HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    private static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : "unknown";
+    }
+
+    @Data
+    public static class Config {
+        private int initialLimit = 20;
+        private int minLimit = 4;
+        private int maxLimit = 500;
+        private double smoothing = 0.2;
+        private double tolerance = 1.5;
+        private double backoffRatio = 0.9;
+        private Duration minRttWindow = Duration.ofSeconds(30);
+    }
+}
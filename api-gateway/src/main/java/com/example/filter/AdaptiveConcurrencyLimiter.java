@@ -0,0 +1,90 @@
+package com.example.filter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Gradient-style concurrency limit for one route. The limit grows while observed latency
+ * stays close to the best latency seen recently, shrinks in proportion as latency rises
+ * (queueing downstream), and backs off multiplicatively on errors and timeouts.
+ */
+class AdaptiveConcurrencyLimiter {
+
+    private final AdaptiveConcurrencyLimitGatewayFilterFactory.Config config;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    private volatile double limit;
+    private long minRttNanos = Long.MAX_VALUE;
+    private long minRttResetAt;
+
+    AdaptiveConcurrencyLimiter(AdaptiveConcurrencyLimitGatewayFilterFactory.Config config) {
+        this.config = config;
+        this.limit = config.getInitialLimit();
+        this.minRttResetAt = System.nanoTime() + config.getMinRttWindow().toNanos();
+    }
+
+    /**
+     * Returns the number of requests in flight including this one, or -1 if the limit is reached.
+     */
+    int tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                rejected.increment();
+                return -1;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    synchronized void onSample(long rttNanos, int inFlightAtStart, boolean dropped) {
+        double current = limit;
+        if (dropped) {
+            limit = Math.max(config.getMinLimit(), current * config.getBackoffRatio());
+            return;
+        }
+
+        long now = System.nanoTime();
+        if (now >= minRttResetAt) {
+            // Periodically forget the floor so a permanently faster/slower backend is re-learned
+            minRttNanos = rttNanos;
+            minRttResetAt = now + config.getMinRttWindow().toNanos();
+        } else if (rttNanos < minRttNanos) {
+            minRttNanos = rttNanos;
+        }
+
+        // Don't grow the limit when we weren't using it; the sample says nothing about headroom
+        if (inFlightAtStart < current / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, config.getTolerance() * minRttNanos / rttNanos));
+        double next = current * gradient + Math.sqrt(current);
+        next = current * (1 - config.getSmoothing()) + next * config.getSmoothing();
+        limit = Math.max(config.getMinLimit(), Math.min(config.getMaxLimit(), next));
+    }
+
+    double limit() {
+        return limit;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    long rejected() {
+        return rejected.sum();
+    }
+
+    synchronized double minRttMillis() {
+        return minRttNanos == Long.MAX_VALUE ? 0 : (double) minRttNanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
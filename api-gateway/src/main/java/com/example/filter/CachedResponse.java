@@ -0,0 +1,14 @@
+package com.example.filter;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+import java.time.Duration;
+import java.time.Instant;
+
+record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, Instant storedAt, Duration ttl) {
+
+    long ageSeconds() {
+        return Duration.between(storedAt, Instant.now()).toSeconds();
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.filter;
+
+import com.example.config.RateLimitProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@code RateLimiter} behind the RequestRateLimiter filter that keeps one {@link TokenBucket} per
+ * route and client in gateway memory, so no Redis is needed. Limits are per gateway instance.
+ * Per-route limits come from {@code in-memory-rate-limiter.*} filter args, otherwise from
+ * {@code gateway.rate-limit}.
+ */
+@Component
+public class InMemoryRateLimiter extends AbstractRateLimiter<InMemoryRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "in-memory-rate-limiter";
+
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    public static final String REPLENISH_RATE_HEADER = "X-RateLimit-Replenish-Rate";
+    public static final String BURST_CAPACITY_HEADER = "X-RateLimit-Burst-Capacity";
+    public static final String REQUESTED_TOKENS_HEADER = "X-RateLimit-Requested-Tokens";
+
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Config defaultConfig;
+    private final Cache<String, TokenBucket> buckets;
+    private final Map<String, RouteCounters> counters = new ConcurrentHashMap<>();
+
+    public InMemoryRateLimiter(ConfigurationService configurationService, RateLimitProperties properties,
+                               MeterRegistry meterRegistry) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.defaultConfig = new Config();
+        this.defaultConfig.setReplenishRate(properties.getReplenishRate());
+        this.defaultConfig.setBurstCapacity(properties.getBurstCapacity());
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(properties.getIdleTimeout())
+                .maximumSize(properties.getMaxBuckets())
+                .build();
+        Gauge.builder("gateway.ratelimit.buckets", buckets, Cache::estimatedSize)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().getOrDefault(routeId, defaultConfig);
+        int burst = Math.max(config.getBurstCapacity(), config.getRequestedTokens());
+        long nanosPerToken = TimeUnit.SECONDS.toNanos(1) / Math.max(1, config.getReplenishRate());
+        long now = System.nanoTime();
+
+        TokenBucket bucket = buckets.get(routeId + '|' + id, key -> new TokenBucket(now));
+        long result = bucket.tryConsume(config.getRequestedTokens(), burst, nanosPerToken, now);
+        boolean allowed = result >= 0;
+
+        RouteCounters route = counters.computeIfAbsent(routeId, this::register);
+        (allowed ? route.allowed : route.rejected).increment();
+
+        if (!properties.isIncludeHeaders()) {
+            return Mono.just(new Response(allowed, Map.of()));
+        }
+        Map<String, String> headers = new HashMap<>();
+        headers.put(REMAINING_HEADER, String.valueOf(allowed ? result : 0));
+        headers.put(REPLENISH_RATE_HEADER, String.valueOf(config.getReplenishRate()));
+        headers.put(BURST_CAPACITY_HEADER, String.valueOf(burst));
+        headers.put(REQUESTED_TOKENS_HEADER, String.valueOf(config.getRequestedTokens()));
+        if (!allowed) {
+            // result holds the negated wait; round up to whole seconds
+            headers.put(HttpHeaders.RETRY_AFTER, String.valueOf((-result + 999_999_999) / 1_000_000_000));
+        }
+        return Mono.just(new Response(allowed, headers));
+    }
+
+    private RouteCounters register(String routeId) {
+        RouteCounters route = new RouteCounters();
+        FunctionCounter.builder("gateway.ratelimit.requests", route.allowed, LongAdder::sum)
+                .tag("route", routeId)
+                .tag("outcome", "allowed")
+                .register(meterRegistry);
+        FunctionCounter.builder("gateway.ratelimit.requests", route.rejected, LongAdder::sum)
+                .tag("route", routeId)
+                .tag("outcome", "rejected")
+                .register(meterRegistry);
+        return route;
+    }
+
+    private static final class RouteCounters {
+        private final LongAdder allowed = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+    }
+
+    @Data
+    public static class Config {
+        /**
+         * Tokens added per second; the sustained request rate.
+         */
+        private int replenishRate = 20;
+        /**
+         * Bucket size; the largest burst allowed after a quiet period.
+         */
+        private int burstCapacity = 40;
+        /**
+         * Tokens each request costs.
+         */
+        private int requestedTokens = 1;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.filter;
+
+import com.example.config.GatewayAuthProperties;
+import com.example.config.RateLimitProperties;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.support.ipresolver.RemoteAddressResolver;
+import org.springframework.cloud.gateway.support.ipresolver.XForwardedRemoteAddressResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Keys rate limits by the authenticated user when the JWT filter has set one, otherwise by
+ * client address, so a shared NAT doesn't throttle logged-in users together.
+ */
+@Component
+public class RateLimitKeyResolver implements KeyResolver {
+
+    private final GatewayAuthProperties authProperties;
+    private final RemoteAddressResolver addressResolver;
+
+    public RateLimitKeyResolver(GatewayAuthProperties authProperties, RateLimitProperties properties) {
+        this.authProperties = authProperties;
+        this.addressResolver = properties.getTrustedProxies() > 0
+                ? XForwardedRemoteAddressResolver.maxTrustedIndex(properties.getTrustedProxies())
+                : new RemoteAddressResolver() {
+                };
+    }
+
+    @Override
+    public Mono<String> resolve(ServerWebExchange exchange) {
+        String user = exchange.getRequest().getHeaders().getFirst(authProperties.getUserHeader());
+        if (user != null && !user.isBlank()) {
+            return Mono.just("user:" + user);
+        }
+        InetSocketAddress address = addressResolver.resolve(exchange);
+        if (address == null) {
+            return Mono.just("ip:unknown");
+        }
+        return Mono.just("ip:" + (address.getAddress() != null ? address.getAddress().getHostAddress() : address.getHostString()));
+    }
+}
@@ -0,0 +1,292 @@
+package com.example.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Serves idempotent GETs for a route from the gateway's in-memory {@link ResponseCacheStore}.
+ * Concurrent misses for the same key are coalesced onto a single upstream call, and any
+ * write through the same route drops that route's entries.
+ * <pre>
+ * filters:
+ *   - name: ResponseCache
+ *     args:
+ *       ttl: 10s
+ *       shared: true
+ * </pre>
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    private static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    private static final String CACHE_STATUS_HEADER = "X-Cache";
+    private static final Set<String> UNCACHED_HEADERS = Set.of(
+            HttpHeaders.CONNECTION.toLowerCase(Locale.ROOT),
+            HttpHeaders.TRANSFER_ENCODING.toLowerCase(Locale.ROOT),
+            HttpHeaders.CONTENT_LENGTH.toLowerCase(Locale.ROOT),
+            HttpHeaders.DATE.toLowerCase(Locale.ROOT),
+            CACHE_STATUS_HEADER.toLowerCase(Locale.ROOT));
+
+    private final ResponseCacheStore store;
+    private final MeterRegistry meterRegistry;
+
+    public ResponseCacheGatewayFilterFactory(ResponseCacheStore store, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.store = store;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter((exchange, chain) -> filter(exchange, chain, config), ORDER);
+    }
+
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain, Config config) {
+        ServerHttpRequest request = exchange.getRequest();
+        String routeId = routeId(exchange);
+        HttpMethod method = request.getMethod();
+
+        if (method != HttpMethod.GET) {
+            if (config.isEvictOnWrite() && isWrite(method)) {
+                return chain.filter(exchange).doFinally(signal -> store.evictRoute(routeId));
+            }
+            return chain.filter(exchange);
+        }
+
+        if (bypassesCache(request.getHeaders())) {
+            record(routeId, "bypass");
+            return chain.filter(exchange);
+        }
+
+        String key = cacheKey(routeId, request, config);
+        CachedResponse cached = store.get(key);
+        if (cached != null) {
+            record(routeId, "hit");
+            return writeCached(exchange, cached);
+        }
+
+        Sinks.One<CachedResponse> leader = Sinks.one();
+        Sinks.One<CachedResponse> inFlight = store.claim(key, leader);
+        if (inFlight != null) {
+            record(routeId, "coalesced");
+            return inFlight.asMono()
+                    .timeout(config.getCoalesceTimeout(), Mono.empty())
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .flatMap(result -> result.isPresent()
+                            ? writeCached(exchange, result.get())
+                            : chain.filter(exchange));
+        }
+
+        record(routeId, "miss");
+        ServerHttpResponse response = new CachingResponse(exchange.getResponse(), key, config, leader);
+        return chain.filter(exchange.mutate().response(response).build())
+                .doFinally(signal -> {
+                    store.release(key, leader);
+                    leader.tryEmitEmpty();
+                });
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(cached.status());
+        HttpHeaders headers = response.getHeaders();
+        cached.headers().forEach((name, values) -> {
+            if (!headers.containsKey(name)) {
+                headers.put(name, values);
+            }
+        });
+        headers.set(HttpHeaders.AGE, Long.toString(cached.ageSeconds()));
+        headers.set(CACHE_STATUS_HEADER, "HIT");
+        headers.setContentLength(cached.body().length);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(cached.body())));
+    }
+
+    private String cacheKey(String routeId, ServerHttpRequest request, Config config) {
+        StringBuilder key = new StringBuilder(routeId).append('|').append(request.getURI().getRawPath());
+        if (request.getURI().getRawQuery() != null) {
+            key.append('?').append(request.getURI().getRawQuery());
+        }
+        HttpHeaders headers = request.getHeaders();
+        for (String name : config.getVaryHeaders()) {
+            key.append('|').append(name).append('=').append(headers.getValuesAsList(name));
+        }
+        if (!config.isShared()) {
+            // Per-caller entries: never serve one user's response to another
+            key.append("|auth=").append(headers.getFirst(HttpHeaders.AUTHORIZATION));
+        }
+        return key.toString();
+    }
+
+    private static boolean bypassesCache(HttpHeaders headers) {
+        String cacheControl = headers.getFirst(HttpHeaders.CACHE_CONTROL);
+        if (cacheControl != null) {
+            String directives = cacheControl.toLowerCase(Locale.ROOT);
+            return directives.contains("no-cache") || directives.contains("no-store");
+        }
+        return "no-cache".equalsIgnoreCase(headers.getFirst(HttpHeaders.PRAGMA));
+    }
+
+    /**
+     * Returns how long an upstream response may be cached, or null if it must not be.
+     */
+    private static Duration cacheableFor(HttpStatusCode status, HttpHeaders headers, Config config) {
+        if (status == null || status.value() != HttpStatus.OK.value() || headers.containsKey(HttpHeaders.SET_COOKIE)) {
+            return null;
+        }
+
+        for (String vary : headers.getVary()) {
+            if ("*".equals(vary) || config.getVaryHeaders().stream().noneMatch(vary::equalsIgnoreCase)) {
+                return null;
+            }
+        }
+
+        Duration ttl = config.getTtl();
+        String cacheControl = headers.getFirst(HttpHeaders.CACHE_CONTROL);
+        if (cacheControl == null) {
+            return ttl;
+        }
+        Long maxAge = null;
+        Long sharedMaxAge = null;
+        for (String directive : cacheControl.toLowerCase(Locale.ROOT).split(",")) {
+            String value = directive.trim();
+            if (value.equals("no-store") || value.equals("no-cache") || value.equals("private")) {
+                return null;
+            } else if (value.startsWith("s-maxage=")) {
+                sharedMaxAge = parseSeconds(value.substring("s-maxage=".length()));
+            } else if (value.startsWith("max-age=")) {
+                maxAge = parseSeconds(value.substring("max-age=".length()));
+            }
+        }
+        Long upstream = sharedMaxAge != null ? sharedMaxAge : maxAge;
+        if (upstream != null) {
+            if (upstream <= 0) {
+                return null;
+            }
+            Duration upstreamTtl = Duration.ofSeconds(upstream);
+            return upstreamTtl.compareTo(config.getMaxTtl()) < 0 ? upstreamTtl : config.getMaxTtl();
+        }
+        return ttl;
+    }
+
+    private static Long parseSeconds(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    private static HttpHeaders cacheableHeaders(HttpHeaders source) {
+        HttpHeaders headers = new HttpHeaders();
+        source.forEach((name, values) -> {
+            String lower = name.toLowerCase(Locale.ROOT);
+            if (!UNCACHED_HEADERS.contains(lower) && !lower.startsWith("access-control-")) {
+                headers.put(name, List.copyOf(values));
+            }
+        });
+        return HttpHeaders.readOnlyHttpHeaders(headers);
+    }
+
+    private static boolean isWrite(HttpMethod method) {
+        return method == HttpMethod.POST || method == HttpMethod.PUT
+                || method == HttpMethod.PATCH || method == HttpMethod.DELETE;
+    }
+
+    private static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : "unknown";
+    }
+
+    private void record(String routeId, String result) {
+        meterRegistry.counter("gateway.response.cache.requests", "route", routeId, "result", result).increment();
+    }
+
+    /**
+     * Buffers a cacheable upstream body so it can be stored, then writes it through unchanged.
+     */
+    private class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final String key;
+        private final Config config;
+        private final Sinks.One<CachedResponse> leader;
+
+        CachingResponse(ServerHttpResponse delegate, String key, Config config, Sinks.One<CachedResponse> leader) {
+            super(delegate);
+            this.key = key;
+            this.config = config;
+            this.leader = leader;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpHeaders headers = getHeaders();
+            Duration ttl = cacheableFor(getStatusCode(), headers, config);
+            long maxEntryBytes = config.getMaxEntrySize().toBytes();
+            if (ttl == null || headers.getContentLength() > maxEntryBytes) {
+                return super.writeWith(body);
+            }
+
+            headers.set(CACHE_STATUS_HEADER, "MISS");
+            return DataBufferUtils.join(Flux.from(body))
+                    .map(joined -> {
+                        byte[] bytes = new byte[joined.readableByteCount()];
+                        joined.read(bytes);
+                        DataBufferUtils.release(joined);
+                        return bytes;
+                    })
+                    .defaultIfEmpty(new byte[0])
+                    .flatMap(bytes -> {
+                        if (bytes.length <= maxEntryBytes) {
+                            CachedResponse entry = new CachedResponse(getStatusCode(), cacheableHeaders(headers),
+                                    bytes, Instant.now(), ttl);
+                            store.put(key, entry);
+                            leader.tryEmitValue(entry);
+                        }
+                        return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                    });
+        }
+    }
+
+    @Data
+    public static class Config {
+        private Duration ttl = Duration.ofSeconds(30);
+        private Duration maxTtl = Duration.ofMinutes(5);
+        private DataSize maxEntrySize = DataSize.ofKilobytes(256);
+        private List<String> varyHeaders = List.of(HttpHeaders.ACCEPT);
+        private boolean shared = false;
+        private boolean evictOnWrite = true;
+        private Duration coalesceTimeout = Duration.ofSeconds(5);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.filter;
+
+import com.example.config.ResponseCacheProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Sinks;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared, size-bounded store behind every route that uses the ResponseCache filter.
+ * Entries expire individually according to the TTL decided when they were stored.
+ */
+@Component
+public class ResponseCacheStore {
+
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    private final Cache<String, CachedResponse> cache;
+    private final Map<String, Sinks.One<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public ResponseCacheStore(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxTotalSize().toBytes())
+                .weigher((String key, CachedResponse value) -> key.length() + value.body().length + ENTRY_OVERHEAD_BYTES)
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+                        return value.ttl().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse value, long currentTime, long currentDuration) {
+                        return value.ttl().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gatewayResponseCache");
+    }
+
+    CachedResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    void put(String key, CachedResponse response) {
+        cache.put(key, response);
+    }
+
+    /**
+     * Registers the caller as the one request allowed to fetch {@code key} from upstream.
+     * Returns the sink of the request that already holds the claim, or null if the caller won it.
+     */
+    Sinks.One<CachedResponse> claim(String key, Sinks.One<CachedResponse> leader) {
+        return inFlight.putIfAbsent(key, leader);
+    }
+
+    void release(String key, Sinks.One<CachedResponse> leader) {
+        inFlight.remove(key, leader);
+    }
+
+    void evictRoute(String routeId) {
+        String prefix = routeId + "|";
+        cache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.filter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket. Instead of a token count plus a refill timestamp, it keeps the single
+ * instant at which the bucket will be full again: the tokens available now follow from how far
+ * that instant lies ahead, so taking tokens is one compare-and-set.
+ */
+final class TokenBucket {
+
+    private final AtomicLong fullAt;
+
+    TokenBucket(long nowNanos) {
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes {@code tokens} if available. Returns the tokens left afterwards, or, if the request
+     * is rejected, the negated nanoseconds until enough tokens will have been replenished.
+     */
+    long tryConsume(int tokens, int capacity, long nanosPerToken, long nowNanos) {
+        long window = capacity * nanosPerToken;
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + tokens * nanosPerToken;
+            long debt = next - nowNanos;
+            if (debt > window) {
+                return -Math.max(1, debt - window);
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return (window - debt) / nanosPerToken;
+            }
+        }
+    }
+}
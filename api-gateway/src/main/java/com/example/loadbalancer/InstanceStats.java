@@ -0,0 +1,87 @@
+package com.example.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live load and latency figures for a single backend instance.
+ */
+public class InstanceStats {
+
+    private final String serviceId;
+    private final String address;
+    private final long firstSeenNanos;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    private double ewmaNanos;
+    private long lastSampleNanos;
+    private volatile long lastUsedNanos;
+
+    InstanceStats(String serviceId, String address, long initialLatencyNanos, long nowNanos) {
+        this.serviceId = serviceId;
+        this.address = address;
+        this.firstSeenNanos = nowNanos;
+        this.ewmaNanos = initialLatencyNanos;
+        this.lastSampleNanos = nowNanos;
+        this.lastUsedNanos = nowNanos;
+    }
+
+    void requestStarted(long nowNanos) {
+        outstanding.incrementAndGet();
+        lastUsedNanos = nowNanos;
+    }
+
+    /**
+     * Peak-sensitive EWMA: a slower sample replaces the average outright, faster ones decay into it
+     * with a weight based on the time since the previous sample.
+     */
+    synchronized void requestFinished(long latencyNanos, boolean failed, long decayNanos, long nowNanos) {
+        outstanding.decrementAndGet();
+        requests.increment();
+        if (failed) {
+            failures.increment();
+        }
+        if (latencyNanos > ewmaNanos) {
+            ewmaNanos = latencyNanos;
+        } else {
+            double elapsed = Math.max(0, nowNanos - lastSampleNanos);
+            double weight = Math.exp(-elapsed / decayNanos);
+            ewmaNanos = ewmaNanos * weight + latencyNanos * (1 - weight);
+        }
+        lastSampleNanos = nowNanos;
+    }
+
+    synchronized double ewmaNanos() {
+        return ewmaNanos;
+    }
+
+    public String serviceId() {
+        return serviceId;
+    }
+
+    public String address() {
+        return address;
+    }
+
+    public int outstanding() {
+        return outstanding.get();
+    }
+
+    public long requests() {
+        return requests.sum();
+    }
+
+    public long failures() {
+        return failures.sum();
+    }
+
+    long firstSeenNanos() {
+        return firstSeenNanos;
+    }
+
+    long lastUsedNanos() {
+        return lastUsedNanos;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.loadbalancer;
+
+import com.example.metrics.GatewayLatencyMetrics;
+import com.example.metrics.RouteLatencyFilter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Feeds the outcome of every load-balanced call back into {@link InstanceStatsRegistry}.
+ * Runs right after the load balancer has picked an instance, and uses doFinally so that
+ * cancelled requests still release their outstanding slot.
+ */
+@Component
+@RequiredArgsConstructor
+public class InstanceStatsFilter implements GlobalFilter, Ordered {
+
+    private final InstanceStatsRegistry statsRegistry;
+    private final GatewayLatencyMetrics latencyMetrics;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Response<ServiceInstance> lbResponse =
+                exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return chain.filter(exchange);
+        }
+
+        InstanceStats stats = statsRegistry.get(lbResponse.getServer());
+        statsRegistry.recordStart(stats);
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                // Published before the outer filters see completion so they can derive gateway overhead
+                .doOnTerminate(() -> exchange.getAttributes()
+                        .put(RouteLatencyFilter.UPSTREAM_NANOS_ATTR, System.nanoTime() - start))
+                .doFinally(signal -> {
+                    long elapsed = System.nanoTime() - start;
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    boolean failed = signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError());
+                    statsRegistry.recordFinish(stats, elapsed, failed);
+                    latencyMetrics.upstreamFinished(RouteLatencyFilter.routeId(exchange), stats.address(),
+                            RouteLatencyFilter.statusTag(exchange, signal), elapsed);
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.loadbalancer;
+
+import com.example.config.LoadBalancerProperties;
+import com.example.metrics.GatewayLatencyMetrics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-instance statistics shared between the load balancer (which reads them to pick an
+ * instance) and {@link InstanceStatsFilter} (which feeds in each proxied call's outcome).
+ */
+@Component
+@RequiredArgsConstructor
+public class InstanceStatsRegistry {
+
+    private static final String INFLIGHT_GAUGE = "gateway.instance.inflight";
+    private static final long PRUNE_INTERVAL_NANOS = 60_000_000_000L;
+
+    private final LoadBalancerProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final GatewayLatencyMetrics latencyMetrics;
+    private final Map<String, InstanceStats> stats = new ConcurrentHashMap<>();
+    private final AtomicLong lastPruneNanos = new AtomicLong(System.nanoTime());
+
+    public InstanceStats get(ServiceInstance instance) {
+        long now = System.nanoTime();
+        pruneIfDue(now);
+        return stats.computeIfAbsent(key(instance), key -> register(new InstanceStats(instance.getServiceId(),
+                instance.getHost() + ":" + instance.getPort(), properties.getInitialLatency().toNanos(), now)));
+    }
+
+    private InstanceStats register(InstanceStats instance) {
+        Gauge.builder(INFLIGHT_GAUGE, instance, InstanceStats::outstanding)
+                .tags(Tags.of("service", instance.serviceId(), "instance", instance.address()))
+                .register(meterRegistry);
+        return instance;
+    }
+
+    /**
+     * Load score used for power-of-two-choices; lower is better.
+     */
+    double score(InstanceStats instance, long nowNanos) {
+        double weight = slowStartWeight(instance, nowNanos);
+        return instance.ewmaNanos() * (instance.outstanding() + 1) / weight;
+    }
+
+    double slowStartWeight(InstanceStats instance, long nowNanos) {
+        long slowStartNanos = properties.getSlowStart().toNanos();
+        if (slowStartNanos <= 0) {
+            return 1.0;
+        }
+        double age = (double) (nowNanos - instance.firstSeenNanos()) / slowStartNanos;
+        return Math.max(0.1, Math.min(1.0, age));
+    }
+
+    void recordStart(InstanceStats instance) {
+        instance.requestStarted(System.nanoTime());
+    }
+
+    void recordFinish(InstanceStats instance, long latencyNanos, boolean failed) {
+        long sample = failed ? Math.max(latencyNanos, properties.getFailurePenalty().toNanos()) : latencyNanos;
+        instance.requestFinished(sample, failed, properties.getDecayTime().toNanos(), System.nanoTime());
+    }
+
+    public Collection<InstanceStats> all() {
+        return stats.values();
+    }
+
+    private void pruneIfDue(long now) {
+        long last = lastPruneNanos.get();
+        if (now - last < PRUNE_INTERVAL_NANOS || !lastPruneNanos.compareAndSet(last, now)) {
+            return;
+        }
+        long idleNanos = properties.getIdleEviction().toNanos();
+        stats.values().removeIf(s -> {
+            if (s.outstanding() > 0 || now - s.lastUsedNanos() <= idleNanos) {
+                return false;
+            }
+            Gauge gauge = meterRegistry.find(INFLIGHT_GAUGE)
+                    .tags("service", s.serviceId(), "instance", s.address())
+                    .gauge();
+            if (gauge != null) {
+                meterRegistry.remove(gauge);
+            }
+            latencyMetrics.removeInstance(s.address());
+            return true;
+        });
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getServiceId() + "@" + instance.getHost() + ":" + instance.getPort();
+    }
+}
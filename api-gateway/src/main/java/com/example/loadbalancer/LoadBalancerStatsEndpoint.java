@@ -0,0 +1,43 @@
+package com.example.loadbalancer;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Exposes the balancer's view of each backend instance at /actuator/loadbalancer.
+ */
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "loadbalancer")
+public class LoadBalancerStatsEndpoint {
+
+    private final InstanceStatsRegistry statsRegistry;
+
+    @ReadOperation
+    public Map<String, List<InstanceView>> instances() {
+        long now = System.nanoTime();
+        return statsRegistry.all().stream()
+                .map(stats -> new InstanceView(
+                        stats.serviceId(),
+                        stats.address(),
+                        stats.outstanding(),
+                        Duration.ofNanos((long) stats.ewmaNanos()).toMillis(),
+                        statsRegistry.slowStartWeight(stats, now),
+                        statsRegistry.score(stats, now),
+                        stats.requests(),
+                        stats.failures()))
+                .collect(Collectors.groupingBy(InstanceView::serviceId, TreeMap::new, Collectors.toList()));
+    }
+
+    public record InstanceView(String serviceId, String address, int outstanding, long ewmaLatencyMs,
+                               double slowStartWeight, double score, long requests, long failures) {
+    }
+}
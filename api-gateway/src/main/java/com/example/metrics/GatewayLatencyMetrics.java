@@ -0,0 +1,80 @@
+package com.example.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Latency histograms for proxied traffic, split into the time spent waiting on the backend
+ * (upstream) and the time the gateway itself adds around it (overhead).
+ */
+@Component
+@RequiredArgsConstructor
+public class GatewayLatencyMetrics {
+
+    public static final String ROUTE_LATENCY = "gateway.route.latency";
+    public static final String UPSTREAM_LATENCY = "gateway.upstream.latency";
+    public static final String GATEWAY_OVERHEAD = "gateway.overhead";
+
+    private static final Duration MIN_EXPECTED = Duration.ofMillis(1);
+    private static final Duration MAX_EXPECTED = Duration.ofSeconds(30);
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AtomicInteger> routeInFlight = new ConcurrentHashMap<>();
+
+    public void routeStarted(String routeId) {
+        routeInFlight.computeIfAbsent(routeId, this::registerInFlightGauge).incrementAndGet();
+    }
+
+    public void routeFinished(String routeId, String status, long totalNanos, Long upstreamNanos) {
+        routeInFlight.computeIfAbsent(routeId, this::registerInFlightGauge).decrementAndGet();
+        histogram(ROUTE_LATENCY, "route", routeId, "status", status)
+                .record(totalNanos, TimeUnit.NANOSECONDS);
+        if (upstreamNanos != null) {
+            histogram(GATEWAY_OVERHEAD, "route", routeId)
+                    .record(Math.max(0, totalNanos - upstreamNanos), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void upstreamFinished(String routeId, String instance, String status, long upstreamNanos) {
+        histogram(UPSTREAM_LATENCY, "route", routeId, "instance", instance, "status", status)
+                .record(upstreamNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Drops the upstream histograms of an instance that has left, so replaced instances don't
+     * accumulate meters.
+     */
+    public void removeInstance(String instance) {
+        for (Meter meter : meterRegistry.find(UPSTREAM_LATENCY).tag("instance", instance).meters()) {
+            meterRegistry.remove(meter);
+        }
+    }
+
+    private Timer histogram(String name, String... tags) {
+        return Timer.builder(name)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .minimumExpectedValue(MIN_EXPECTED)
+                .maximumExpectedValue(MAX_EXPECTED)
+                .register(meterRegistry);
+    }
+
+    private AtomicInteger registerInFlightGauge(String routeId) {
+        AtomicInteger inFlight = new AtomicInteger();
+        Gauge.builder("gateway.route.inflight", inFlight, AtomicInteger::get)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        return inFlight;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Human-readable summary of the gateway latency histograms at /actuator/latency. The full
+ * bucketed histograms are scraped from /actuator/prometheus.
+ */
+@Component
+@Endpoint(id = "latency")
+@RequiredArgsConstructor
+public class LatencyEndpoint {
+
+    private final MeterRegistry meterRegistry;
+
+    @ReadOperation
+    public Map<String, List<LatencySummary>> latency() {
+        Map<String, List<LatencySummary>> summary = new LinkedHashMap<>();
+        for (String name : List.of(GatewayLatencyMetrics.ROUTE_LATENCY, GatewayLatencyMetrics.UPSTREAM_LATENCY,
+                GatewayLatencyMetrics.GATEWAY_OVERHEAD)) {
+            summary.put(name, meterRegistry.find(name).timers().stream().map(LatencyEndpoint::summarize).toList());
+        }
+        return summary;
+    }
+
+    private static LatencySummary summarize(Timer timer) {
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        Map<String, String> tags = new LinkedHashMap<>();
+        for (Tag tag : timer.getId().getTags()) {
+            tags.put(tag.getKey(), tag.getValue());
+        }
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            percentiles.put("p" + value.percentile() * 100, value.value(TimeUnit.MILLISECONDS));
+        }
+        return new LatencySummary(tags, snapshot.count(), snapshot.mean(TimeUnit.MILLISECONDS),
+                snapshot.max(TimeUnit.MILLISECONDS), percentiles);
+    }
+
+    public record LatencySummary(Map<String, String> tags, long count, double meanMs, double maxMs,
+                                 Map<String, Double> percentilesMs) {
+    }
+}
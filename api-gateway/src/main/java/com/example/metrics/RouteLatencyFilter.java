@@ -0,0 +1,60 @@
+package com.example.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Outermost gateway filter: times the whole routed exchange. The gap between this and the
+ * upstream time recorded by InstanceStatsFilter is what the gateway adds, i.e. its own
+ * filters plus streaming the response body back to the client.
+ */
+@Component
+@RequiredArgsConstructor
+public class RouteLatencyFilter implements GlobalFilter, Ordered {
+
+    /**
+     * Exchange attribute holding the upstream call's duration in nanoseconds, once known.
+     */
+    public static final String UPSTREAM_NANOS_ATTR = RouteLatencyFilter.class.getName() + ".upstreamNanos";
+
+    private final GatewayLatencyMetrics metrics;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        String routeId = routeId(exchange);
+        long start = System.nanoTime();
+        metrics.routeStarted(routeId);
+        return chain.filter(exchange).doFinally(signal -> metrics.routeFinished(routeId,
+                statusTag(exchange, signal), System.nanoTime() - start, exchange.getAttribute(UPSTREAM_NANOS_ATTR)));
+    }
+
+    public static String statusTag(ServerWebExchange exchange, SignalType signal) {
+        if (signal == SignalType.CANCEL) {
+            return "CANCELLED";
+        }
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        if (signal == SignalType.ON_ERROR && status == null) {
+            return "ERROR";
+        }
+        return status != null ? Integer.toString(status.value()) : "200";
+    }
+
+    public static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : "unknown";
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.security;
+
+import java.time.Instant;
+
+public record AuthenticatedUser(String username, String role, Instant expiresAt) {
+
+    public boolean isExpired() {
+        return expiresAt != null && expiresAt.isBefore(Instant.now());
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.security;
+
+import com.example.config.GatewayAuthProperties;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Authenticates every routed request once at the edge. Runs ahead of the route
+ * filters and the load balancer so rejected requests never cost a downstream call.
+ * Downstream services can trust the user/role headers because any client-supplied
+ * copies are stripped here.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 100;
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtVerifier jwtVerifier;
+    private final GatewayAuthProperties properties;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest().mutate()
+                .headers(headers -> {
+                    headers.remove(properties.getUserHeader());
+                    headers.remove(properties.getRoleHeader());
+                })
+                .build();
+
+        if (request.getMethod() == HttpMethod.OPTIONS || isPublic(request)) {
+            return chain.filter(exchange.mutate().request(request).build());
+        }
+
+        String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
+            return unauthorized(exchange);
+        }
+
+        AuthenticatedUser user;
+        try {
+            user = jwtVerifier.verify(authHeader.substring(BEARER_PREFIX.length()));
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Rejected token for {}: {}", request.getPath(), e.getMessage());
+            return unauthorized(exchange);
+        }
+
+        ServerHttpRequest authenticated = request.mutate()
+                .headers(headers -> {
+                    headers.set(properties.getUserHeader(), user.username());
+                    if (user.role() != null) {
+                        headers.set(properties.getRoleHeader(), user.role());
+                    }
+                })
+                .build();
+        return chain.filter(exchange.mutate().request(authenticated).build());
+    }
+
+    private boolean isPublic(ServerHttpRequest request) {
+        String path = request.getPath().value();
+        for (String entry : properties.getPublicPaths()) {
+            int space = entry.indexOf(' ');
+            if (space < 0) {
+                if (pathMatcher.match(entry, path)) {
+                    return true;
+                }
+            } else if (request.getMethod().matches(entry.substring(0, space))
+                    && pathMatcher.match(entry.substring(space + 1).trim(), path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Mono<Void> unauthorized(ServerWebExchange exchange) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.getHeaders().set(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+        return response.setComplete();
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.security;
+
+import com.example.config.GatewayAuthProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.stereotype.Component;
+
+/**
+ * Verifies HS256 tokens issued by user-service. Parsing is pure CPU work, so it is
+ * safe to call on the event loop; verified tokens are memoised in a bounded cache
+ * so repeat requests with the same token skip the HMAC entirely.
+ */
+@Component
+public class JwtVerifier {
+
+    private final JwtParser parser;
+    private final Cache<String, AuthenticatedUser> verifiedTokens;
+
+    public JwtVerifier(GatewayAuthProperties properties) {
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(properties.getJwtSecret())))
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(properties.getTokenCacheMaxSize())
+                .expireAfterWrite(properties.getTokenCacheTtl())
+                .build();
+    }
+
+    /**
+     * @throws JwtException if the token is malformed, badly signed or expired
+     */
+    public AuthenticatedUser verify(String token) {
+        AuthenticatedUser cached = verifiedTokens.getIfPresent(token);
+        if (cached != null) {
+            if (!cached.isExpired()) {
+                return cached;
+            }
+            verifiedTokens.invalidate(token);
+            throw new JwtException("Token expired");
+        }
+
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        if (claims.getSubject() == null) {
+            throw new JwtException("Token has no subject");
+        }
+        AuthenticatedUser user = new AuthenticatedUser(
+                claims.getSubject(),
+                claims.get("role", String.class),
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
+        verifiedTokens.put(token, user);
+        return user;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.benchmarks;
+
+import com.example.model.Inventory;
+import com.example.repository.InventoryRepository;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Minimal in-process replacements for Postgres and Redis so service code can be benchmarked
+ * without network. Only the methods the hot paths call are implemented; anything else throws.
+ */
+final class InMemoryStandIns {
+
+    private InMemoryStandIns() {
+    }
+
+    static InventoryRepository inventoryRepository(Map<String, Inventory> inventoryBySku) {
+        return proxy(InventoryRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "findBySkuCode" -> Optional.ofNullable(inventoryBySku.get((String) args[0]));
+            case "save", "saveAndFlush" -> {
+                Inventory inventory = (Inventory) args[0];
+                inventoryBySku.put(inventory.getSkuCode(), inventory);
+                yield inventory;
+            }
+            default -> objectMethod(proxy, method.getName(), args);
+        });
+    }
+
+    static RedissonClient redissonClient() {
+        Map<String, RLock> locks = new ConcurrentHashMap<>();
+        return proxy(RedissonClient.class, (proxy, method, args) -> switch (method.getName()) {
+            case "getLock" -> locks.computeIfAbsent((String) args[0], key -> lock(new ReentrantLock()));
+            default -> objectMethod(proxy, method.getName(), args);
+        });
+    }
+
+    private static RLock lock(ReentrantLock lock) {
+        return proxy(RLock.class, (proxy, method, args) -> switch (method.getName()) {
+            case "tryLock" -> args != null && args.length == 3
+                    ? lock.tryLock((Long) args[0], (TimeUnit) args[2])
+                    : lock.tryLock();
+            case "isHeldByCurrentThread" -> lock.isHeldByCurrentThread();
+            case "unlock" -> {
+                lock.unlock();
+                yield null;
+            }
+            default -> objectMethod(proxy, method.getName(), args);
+        });
+    }
+
+    private static Object objectMethod(Object proxy, String name, Object[] args) {
+        return switch (name) {
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            case "toString" -> "InMemoryStandIn@" + Integer.toHexString(System.identityHashCode(proxy));
+            default -> throw new UnsupportedOperationException(name + " is not supported by the in-memory stand-in");
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(InMemoryStandIns.class.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.benchmarks;
+
+import com.example.model.Inventory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding cost of the inventoryList cache value, comparing the self-describing Redis JSON
+ * serializer (type hints embedded) with plain typed Jackson.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InventoryCacheEncodingBenchmark {
+
+    private static final TypeReference<List<Inventory>> INVENTORY_LIST = new TypeReference<>() {
+    };
+
+    @Param({ "6", "500" })
+    public int items;
+
+    private List<Inventory> inventory;
+    private GenericJackson2JsonRedisSerializer genericSerializer;
+    private ObjectMapper objectMapper;
+    private byte[] genericBytes;
+    private byte[] typedBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        inventory = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            inventory.add(Inventory.builder()
+                    .id((long) i)
+                    .skuCode("SKU-" + i)
+                    .name("Product " + i)
+                    .description("A representative product description used to size the cached payload.")
+                    .price(199.0 + i)
+                    .originalPrice(249.0 + i)
+                    .imageUrl("https://images.example.com/products/" + i + "?auto=format&fit=crop&q=80&w=800")
+                    .category("Accessories")
+                    .brand("Brand")
+                    .rating(4.5)
+                    .reviewCount(1000 + i)
+                    .quantity(100)
+                    .build());
+        }
+        genericSerializer = new GenericJackson2JsonRedisSerializer();
+        objectMapper = new ObjectMapper();
+        genericBytes = genericSerializer.serialize(inventory);
+        typedBytes = objectMapper.writeValueAsBytes(inventory);
+    }
+
+    @Benchmark
+    public byte[] genericJsonEncode() {
+        return genericSerializer.serialize(inventory);
+    }
+
+    @Benchmark
+    public Object genericJsonDecode() {
+        return genericSerializer.deserialize(genericBytes);
+    }
+
+    @Benchmark
+    public byte[] typedJsonEncode() throws IOException {
+        return objectMapper.writeValueAsBytes(inventory);
+    }
+
+    @Benchmark
+    public List<Inventory> typedJsonDecode() throws IOException {
+        return objectMapper.readValue(typedBytes, INVENTORY_LIST);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.benchmarks;
+
+import com.example.security.JwtAuthenticationFilter;
+import com.example.security.JwtService;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full user-service filter path for one authenticated request. Mock request/response
+ * construction is included in every iteration and is measured by {@link #unauthenticated()}
+ * for reference.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthenticationFilterBenchmark {
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        JwtService jwtService = new JwtService();
+        filter = new JwtAuthenticationFilter(jwtService);
+        authorization = "Bearer " + jwtService.generateToken("bench-admin", "ADMIN");
+    }
+
+    @Benchmark
+    public MockHttpServletResponse authenticated() throws ServletException, IOException {
+        return run(authorization);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse unauthenticated() throws ServletException, IOException {
+        return run(null);
+    }
+
+    private MockHttpServletResponse run(String authHeader) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users");
+        if (authHeader != null) {
+            request.addHeader("Authorization", authHeader);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, new MockFilterChain());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.benchmarks;
+
+import com.example.dto.OrderEvent;
+import com.example.metrics.OrderPipelineMetrics;
+import com.example.model.Inventory;
+import com.example.service.ShoppingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Body of ShoppingService.updateInventoryAsync against in-memory stand-ins for Redis and the DB.
+ * Called directly, so the @Async hop, transaction and cache eviction proxies are not included.
+ * With {@code skus=1} every thread contends on the same lock, as a hot SKU would.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UpdateInventoryBenchmark {
+
+    @Param({ "1", "64" })
+    public int skus;
+
+    private ShoppingService shoppingService;
+    private OrderEvent[] events;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+        Map<String, Inventory> inventory = new ConcurrentHashMap<>();
+        events = new OrderEvent[skus];
+        for (int i = 0; i < skus; i++) {
+            String sku = "SKU-" + i;
+            inventory.put(sku, Inventory.builder().id((long) i).skuCode(sku).quantity(Integer.MAX_VALUE).build());
+            events[i] = new OrderEvent("bench-" + i, sku, 1, "PENDING", null, null);
+        }
+        shoppingService = new ShoppingService(InMemoryStandIns.inventoryRepository(inventory),
+                InMemoryStandIns.redissonClient(), new OrderPipelineMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void singleThread() {
+        shoppingService.updateInventoryAsync(nextEvent());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void fourThreads() {
+        shoppingService.updateInventoryAsync(nextEvent());
+    }
+
+    /**
+     * Partition-affine path: one lane thread applies events without taking the lock.
+     */
+    @Benchmark
+    @Threads(1)
+    public void inOrderLane() {
+        shoppingService.updateInventoryInOrder(nextEvent());
+    }
+
+    private OrderEvent nextEvent() {
+        return events[(int) (sequence.getAndIncrement() % events.length)];
+    }
+}
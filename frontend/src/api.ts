@@ -23,7 +23,12 @@ export const authApi = {
 };
 
 export const userManagementApi = {
-    getAll: () => api.get('/users'),
+    // One keyset page in id order; nextAfterId is undefined after the last page
+    getPage: async (afterId = 0, limit = 100) => {
+        const res = await api.get('/users', { params: { afterId, limit } });
+        const next = res.headers['x-next-after-id'];
+        return { users: res.data as any[], nextAfterId: next !== undefined ? Number(next) : undefined };
+    },
     getCount: () => api.get('/users/count'),
     getCustomerCount: () => api.get('/users/analytics/customers'),
     getActiveSessions: () => api.get('/users/analytics/active'),
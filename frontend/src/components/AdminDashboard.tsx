@@ -11,7 +11,10 @@ const AdminDashboard: React.FC = () => {
         salesYear: 0
     });
     const [users, setUsers] = useState<any[]>([]);
+    const [totalUsers, setTotalUsers] = useState(0);
+    const [nextAfterId, setNextAfterId] = useState<number | undefined>();
     const [loading, setLoading] = useState(true);
+    const [loadingMore, setLoadingMore] = useState(false);
 
     useEffect(() => {
         const fetchDashboardData = async () => {
@@ -23,14 +26,16 @@ const AdminDashboard: React.FC = () => {
                     salesWeekRes,
                     salesMonthRes,
                     salesYearRes,
-                    usersRes
+                    usersPage,
+                    countRes
                 ] = await Promise.all([
                     userManagementApi.getCustomerCount(),
                     userManagementApi.getActiveSessions(),
                     orderApi.getSalesAnalytics('week'),
                     orderApi.getSalesAnalytics('month'),
                     orderApi.getSalesAnalytics('year'),
-                    userManagementApi.getAll()
+                    userManagementApi.getPage(),
+                    userManagementApi.getCount()
                 ]);
 
                 setStats({
@@ -40,7 +45,9 @@ const AdminDashboard: React.FC = () => {
                     salesMonth: salesMonthRes.data.count,
                     salesYear: salesYearRes.data.count
                 });
-                setUsers(usersRes.data);
+                setUsers(usersPage.users);
+                setNextAfterId(usersPage.nextAfterId);
+                setTotalUsers(countRes.data.totalUsers);
             } catch (error) {
                 console.error("Dashboard data fetch failed", error);
             } finally {
@@ -51,6 +58,20 @@ const AdminDashboard: React.FC = () => {
         fetchDashboardData();
     }, []);
 
+    const loadMoreUsers = async () => {
+        if (nextAfterId === undefined) return;
+        setLoadingMore(true);
+        try {
+            const page = await userManagementApi.getPage(nextAfterId);
+            setUsers(previous => [...previous, ...page.users]);
+            setNextAfterId(page.nextAfterId);
+        } catch (error) {
+            console.error("User page fetch failed", error);
+        } finally {
+            setLoadingMore(false);
+        }
+    };
+
     const StatCard = ({ title, value, icon: Icon, color }: any) => (
         <div className="glass stat-card animate-in" style={{ borderTop: `4px solid ${color}` }}>
             <div style={{ display: 'flex', justifyContent: 'space-between', alignItems: 'flex-start', marginBottom: '1rem' }}>
@@ -88,7 +109,7 @@ const AdminDashboard: React.FC = () => {
                         <Clock className="accent-text" /> System User Directory
                     </h2>
                     <span className="status-badge" style={{ background: 'rgba(255,255,255,0.05)' }}>
-                        {users.length} Total Accounts
+                        {totalUsers} Total Accounts
                     </span>
                 </div>
 
@@ -122,6 +143,14 @@ const AdminDashboard: React.FC = () => {
                         </tbody>
                     </table>
                 </div>
+
+                {nextAfterId !== undefined && (
+                    <div style={{ display: 'flex', justifyContent: 'center', marginTop: '1.5rem' }}>
+                        <button className="btn-secondary btn-sm" onClick={loadMoreUsers} disabled={loadingMore}>
+                            {loadingMore ? 'Loading...' : `Load more (${users.length} of ${totalUsers} shown)`}
+                        </button>
+                    </div>
+                )}
             </div>
         </div>
     );
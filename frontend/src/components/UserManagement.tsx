@@ -3,8 +3,10 @@ import { userManagementApi } from '../api';
 
 const UserManagement: React.FC = () => {
   const [users, setUsers] = useState<any[]>([]);
-  const [counts, setCounts] = useState({ totalUsers: 0 });
+  const [nextAfterId, setNextAfterId] = useState<number | undefined>();
+  const [counts, setCounts] = useState({ totalUsers: 0, activeSessions: 0 });
   const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
 
   useEffect(() => {
     fetchData();
@@ -13,12 +15,14 @@ const UserManagement: React.FC = () => {
   const fetchData = async () => {
     setLoading(true);
     try {
-      const [usersList, userCount] = await Promise.all([
-        userManagementApi.getAll(),
-        userManagementApi.getCount()
+      const [usersPage, userCount, activeSessions] = await Promise.all([
+        userManagementApi.getPage(),
+        userManagementApi.getCount(),
+        userManagementApi.getActiveSessions()
       ]);
-      setUsers(usersList.data);
-      setCounts(userCount.data);
+      setUsers(usersPage.users);
+      setNextAfterId(usersPage.nextAfterId);
+      setCounts({ totalUsers: userCount.data.totalUsers, activeSessions: activeSessions.data.activeSessions });
     } catch (err) {
       console.error('Failed to fetch user data', err);
     } finally {
@@ -26,6 +30,20 @@ const UserManagement: React.FC = () => {
     }
   };
 
+  const loadMore = async () => {
+    if (nextAfterId === undefined) return;
+    setLoadingMore(true);
+    try {
+      const page = await userManagementApi.getPage(nextAfterId);
+      setUsers(previous => [...previous, ...page.users]);
+      setNextAfterId(page.nextAfterId);
+    } catch (err) {
+      console.error('Failed to fetch more users', err);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   if (loading) return <div className="loading">Loading User Management...</div>;
 
   return (
@@ -37,7 +55,7 @@ const UserManagement: React.FC = () => {
         </div>
         <div className="stat-card">
           <h3>Active Sessions</h3>
-          <div className="stat-value">{users.length}</div>
+          <div className="stat-value">{counts.activeSessions}</div>
         </div>
       </div>
 
@@ -69,6 +87,11 @@ const UserManagement: React.FC = () => {
             </tbody>
           </table>
         </div>
+        {nextAfterId !== undefined && (
+          <button className="btn-secondary btn-sm" onClick={loadMore} disabled={loadingMore}>
+            {loadingMore ? 'Loading...' : `Load more (${users.length} of ${counts.totalUsers} shown)`}
+          </button>
+        )}
       </div>
     </div>
   );
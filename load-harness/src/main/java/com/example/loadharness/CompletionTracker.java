@@ -0,0 +1,151 @@
+package com.example.loadharness;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import org.bson.Document;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Works out when each order's downstream effects landed by polling the services' stores:
+ * a payment document per order in Mongo, and a one-unit decrement of the SKU's quantity in the
+ * inventory table. Inventory updates carry no order number, so per SKU they are matched to
+ * orders in submission order; that is exact for a single consumer per SKU and a close
+ * approximation otherwise.
+ */
+final class CompletionTracker implements AutoCloseable {
+
+    private final long epochOffsetMillis = System.currentTimeMillis() - TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    private final Map<String, Submission> awaitingPayment = new ConcurrentHashMap<>();
+    private final Map<String, Deque<Submission>> awaitingInventory = new HashMap<>();
+    private final Map<String, Integer> initialQuantity;
+    private final Map<String, Integer> applied = new HashMap<>();
+    private final LatencyRecorder paymentLatency = new LatencyRecorder();
+    private final LatencyRecorder inventoryLatency = new LatencyRecorder();
+    private final AtomicLong accepted = new AtomicLong();
+    private final MongoClient mongo;
+    private final MongoCollection<Document> payments;
+    private final Connection inventoryDb;
+    private final PreparedStatement quantities;
+    private Date paymentWatermark = new Date(0);
+
+    CompletionTracker(String mongoUri, String inventoryJdbcUrl, Map<String, Integer> initialQuantity)
+            throws SQLException {
+        this.initialQuantity = initialQuantity;
+        this.mongo = MongoClients.create(mongoUri);
+        this.payments = mongo.getDatabase("payment_db").getCollection("payments");
+        this.inventoryDb = DriverManager.getConnection(inventoryJdbcUrl, "user", "password");
+        this.quantities = inventoryDb.prepareStatement("SELECT sku_code, quantity FROM inventory");
+    }
+
+    static final class Submission {
+        final String skuCode;
+        final long intendedNanos;
+        volatile boolean failed;
+
+        Submission(String skuCode, long intendedNanos) {
+            this.skuCode = skuCode;
+            this.intendedNanos = intendedNanos;
+        }
+    }
+
+    synchronized Submission submitted(String skuCode, long intendedNanos) {
+        Submission submission = new Submission(skuCode, intendedNanos);
+        awaitingInventory.computeIfAbsent(skuCode, k -> new ArrayDeque<>()).addLast(submission);
+        return submission;
+    }
+
+    void accepted(Submission submission, String orderNumber) {
+        accepted.incrementAndGet();
+        awaitingPayment.put(orderNumber, submission);
+    }
+
+    void failed(Submission submission) {
+        submission.failed = true;
+    }
+
+    /**
+     * One polling pass over both stores; called periodically by the harness.
+     */
+    synchronized void poll() throws SQLException {
+        long nowNanos = System.nanoTime();
+
+        // transactionTime is written with second-or-better precision, so re-read the last instant
+        for (Document payment : payments.find(Filters.gte("transactionTime", paymentWatermark))
+                .projection(Projections.include("orderNumber", "transactionTime"))) {
+            Submission submission = awaitingPayment.remove(payment.getString("orderNumber"));
+            Date completedAt = payment.getDate("transactionTime");
+            if (completedAt != null && completedAt.after(paymentWatermark)) {
+                paymentWatermark = completedAt;
+            }
+            if (submission != null && completedAt != null) {
+                long intendedMillis = epochOffsetMillis + TimeUnit.NANOSECONDS.toMillis(submission.intendedNanos);
+                paymentLatency.record(completedAt.getTime() - intendedMillis);
+            }
+        }
+
+        try (ResultSet rs = quantities.executeQuery()) {
+            while (rs.next()) {
+                String sku = rs.getString(1);
+                Integer initial = initialQuantity.get(sku);
+                if (initial == null) {
+                    continue;
+                }
+                int decremented = initial - rs.getInt(2);
+                int done = applied.getOrDefault(sku, 0);
+                Deque<Submission> queue = awaitingInventory.getOrDefault(sku, new ArrayDeque<>());
+                while (done < decremented && !queue.isEmpty()) {
+                    Submission submission = queue.pollFirst();
+                    if (submission.failed) {
+                        continue;
+                    }
+                    inventoryLatency.record(TimeUnit.NANOSECONDS.toMillis(nowNanos - submission.intendedNanos));
+                    done++;
+                }
+                applied.put(sku, done);
+            }
+        }
+    }
+
+    long accepted() {
+        return accepted.get();
+    }
+
+    long paymentsCompleted() {
+        return paymentLatency.count();
+    }
+
+    long inventoryCompleted() {
+        return inventoryLatency.count();
+    }
+
+    LatencyRecorder paymentLatency() {
+        return paymentLatency;
+    }
+
+    LatencyRecorder inventoryLatency() {
+        return inventoryLatency;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        quantities.close();
+        inventoryDb.close();
+        mongo.close();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.loadharness;
+
+import com.github.fppt.jedismock.RedisServer;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+/**
+ * In-process stand-ins for the infrastructure docker-compose normally provides: a KRaft Kafka
+ * broker, an in-memory Redis and an in-memory Mongo. The databases the services own are H2
+ * in-memory instances opened by the services themselves.
+ */
+final class EmbeddedInfrastructure implements AutoCloseable {
+
+    static final String ORDER_EVENTS_TOPIC = "order-events";
+
+    // ShoppingService's RedissonClient is pinned to this port in RedisConfig
+    private static final int REDIS_PORT = 6379;
+
+    private final EmbeddedKafkaKraftBroker kafka;
+    private final RedisServer redis;
+    private final MongoServer mongo;
+    private final String mongoUri;
+
+    EmbeddedInfrastructure(int partitions) throws IOException {
+        kafka = new EmbeddedKafkaKraftBroker(1, partitions, ORDER_EVENTS_TOPIC);
+        kafka.afterPropertiesSet();
+
+        redis = RedisServer.newRedisServer(REDIS_PORT);
+        redis.start();
+
+        mongo = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = mongo.bind();
+        mongoUri = "mongodb://" + address.getHostString() + ":" + address.getPort() + "/payment_db";
+    }
+
+    String kafkaBrokers() {
+        return kafka.getBrokersAsString();
+    }
+
+    String redisHost() {
+        return redis.getHost();
+    }
+
+    int redisPort() {
+        return redis.getBindPort();
+    }
+
+    String mongoUri() {
+        return mongoUri;
+    }
+
+    @Override
+    public void close() throws IOException {
+        mongo.shutdownNow();
+        redis.stop();
+        kafka.destroy();
+    }
+}
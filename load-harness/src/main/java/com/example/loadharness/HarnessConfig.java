@@ -0,0 +1,64 @@
+package com.example.loadharness;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Harness settings, given as {@code key=value} arguments (a leading {@code --} is accepted).
+ */
+record HarnessConfig(int rate,
+                     Duration duration,
+                     Duration drainTimeout,
+                     int skus,
+                     double zipfExponent,
+                     int partitions,
+                     String inventoryMode,
+                     boolean groupCommit,
+                     boolean readReplica,
+                     Path orderServiceJar,
+                     Path shoppingServiceJar,
+                     Path paymentServiceJar) {
+
+    static HarnessConfig parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            String trimmed = arg.startsWith("--") ? arg.substring(2) : arg;
+            int eq = trimmed.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value but got: " + arg);
+            }
+            values.put(trimmed.substring(0, eq), trimmed.substring(eq + 1));
+        }
+        return new HarnessConfig(
+                Integer.parseInt(values.getOrDefault("rate", "100")),
+                parseDuration(values.getOrDefault("duration", "30s")),
+                parseDuration(values.getOrDefault("drain-timeout", "60s")),
+                Integer.parseInt(values.getOrDefault("skus", "50")),
+                Double.parseDouble(values.getOrDefault("zipf", "1.1")),
+                Integer.parseInt(values.getOrDefault("partitions", "4")),
+                values.getOrDefault("inventory-mode", "locked"),
+                Boolean.parseBoolean(values.getOrDefault("group-commit", "false")),
+                Boolean.parseBoolean(values.getOrDefault("read-replica", "false")),
+                Path.of(values.getOrDefault("order-jar", "order-service/target/order-service-0.0.1-SNAPSHOT.jar")),
+                Path.of(values.getOrDefault("shopping-jar",
+                        "shopping-service/target/shopping-service-0.0.1-SNAPSHOT-exec.jar")),
+                Path.of(values.getOrDefault("payment-jar",
+                        "payment-service/target/payment-service-0.0.1-SNAPSHOT.jar")));
+    }
+
+    private static Duration parseDuration(String value) {
+        String v = value.trim().toLowerCase();
+        if (v.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+        }
+        if (v.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(v.substring(0, v.length() - 1)));
+        }
+        if (v.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(v.substring(0, v.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(v));
+    }
+}
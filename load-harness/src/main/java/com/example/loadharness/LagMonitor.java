@@ -0,0 +1,72 @@
+package com.example.loadharness;
+
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Samples consumer lag (latest offset minus committed offset, summed over partitions) for each
+ * consumer group on the order-events topic.
+ */
+final class LagMonitor implements AutoCloseable {
+
+    private final Admin admin;
+    private final List<String> groups;
+    private final Map<String, Long> currentLag = new ConcurrentHashMap<>();
+    private final Map<String, Long> maxLag = new ConcurrentHashMap<>();
+
+    LagMonitor(String brokers, List<String> groups) {
+        this.admin = Admin.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, brokers));
+        this.groups = groups;
+    }
+
+    void sample() throws ExecutionException, InterruptedException {
+        for (String group : groups) {
+            Map<TopicPartition, OffsetAndMetadata> committed = admin.listConsumerGroupOffsets(group)
+                    .partitionsToOffsetAndMetadata().get();
+            List<TopicPartition> partitions = admin.describeTopics(List.of(EmbeddedInfrastructure.ORDER_EVENTS_TOPIC))
+                    .allTopicNames().get().get(EmbeddedInfrastructure.ORDER_EVENTS_TOPIC).partitions().stream()
+                    .map(p -> new TopicPartition(EmbeddedInfrastructure.ORDER_EVENTS_TOPIC, p.partition()))
+                    .toList();
+            Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> latest = admin.listOffsets(partitions.stream()
+                    .collect(Collectors.toMap(Function.identity(), p -> OffsetSpec.latest())))
+                    .all().get();
+
+            long lag = 0;
+            for (TopicPartition partition : partitions) {
+                OffsetAndMetadata offset = committed.get(partition);
+                lag += latest.get(partition).offset() - (offset != null ? offset.offset() : 0);
+            }
+            currentLag.put(group, lag);
+            maxLag.merge(group, lag, Math::max);
+        }
+    }
+
+    long currentLag() {
+        return currentLag.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    Map<String, String> summary() {
+        Map<String, String> summary = new LinkedHashMap<>();
+        for (String group : groups) {
+            summary.put(group, "max=" + maxLag.getOrDefault(group, 0L) + " final=" + currentLag.getOrDefault(group, 0L));
+        }
+        return summary;
+    }
+
+    @Override
+    public void close() {
+        admin.close();
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.loadharness;
+
+import java.util.Arrays;
+
+/**
+ * Collects latency samples in milliseconds and reports exact percentiles at the end of a run.
+ */
+final class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int count;
+
+    synchronized void record(long millis) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = Math.max(0, millis);
+    }
+
+    synchronized int count() {
+        return count;
+    }
+
+    synchronized String summary() {
+        if (count == 0) {
+            return "no samples";
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        return String.format("p50=%dms p99=%dms p999=%dms max=%dms (n=%d)",
+                percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                sorted[sorted.length - 1], count);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.loadharness;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Boots order-service, shopping-service and payment-service in one JVM against embedded Kafka,
+ * Redis, Mongo and H2, drives a Zipf-skewed order stream at a fixed rate, and reports
+ * end-to-end latency percentiles, throughput and consumer lag. No docker or network needed.
+ */
+public final class LoadHarness {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadHarness.class);
+
+    private static final String H2_OPTIONS = ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    private static final String ORDER_DB = "jdbc:h2:mem:order_db" + H2_OPTIONS;
+    private static final String SHOPPING_DB = "jdbc:h2:mem:shopping_db" + H2_OPTIONS;
+    private static final int SEEDED_QUANTITY = 1_000_000_000;
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(250);
+
+    private LoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        HarnessConfig config = HarnessConfig.parse(args);
+        log.info("Load harness: {}", config);
+
+        int exitCode = 0;
+        try (EmbeddedInfrastructure infra = new EmbeddedInfrastructure(config.partitions())) {
+            int orderPort = freePort();
+            ServiceLauncher.launch("order", config.orderServiceJar(), serviceArgs(infra, config, orderPort,
+                    withReplica(config, ORDER_DB,
+                            "--spring.datasource.url=" + ORDER_DB,
+                            "--spring.datasource.driver-class-name=org.h2.Driver",
+                            "--order.group-commit.enabled=" + config.groupCommit())));
+            ServiceLauncher.launch("shopping", config.shoppingServiceJar(), serviceArgs(infra, config, freePort(),
+                    withReplica(config, SHOPPING_DB,
+                            "--spring.datasource.url=" + SHOPPING_DB,
+                            "--spring.datasource.driver-class-name=org.h2.Driver",
+                            "--spring.data.redis.host=" + infra.redisHost(),
+                            "--spring.data.redis.port=" + infra.redisPort(),
+                            "--shopping.inventory.consumer-mode=" + config.inventoryMode())));
+            ServiceLauncher.launch("payment", config.paymentServiceJar(), serviceArgs(infra, config, freePort(),
+                    "--spring.data.mongodb.uri=" + infra.mongoUri()));
+            log.info("Services started");
+
+            Map<String, Integer> inventory = seedInventory(config.skus());
+            ZipfSampler sampler = new ZipfSampler(new ArrayList<>(inventory.keySet()), config.zipfExponent());
+
+            try (CompletionTracker tracker = new CompletionTracker(infra.mongoUri(), SHOPPING_DB, inventory);
+                 LagMonitor lag = new LagMonitor(infra.kafkaBrokers(), List.of("shopping-group", "payment-group"))) {
+                ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor();
+                poller.scheduleWithFixedDelay(() -> {
+                    try {
+                        tracker.poll();
+                        lag.sample();
+                    } catch (Exception e) {
+                        log.warn("Polling failed: {}", e.toString());
+                    }
+                }, 0, POLL_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+
+                OrderDriver driver = new OrderDriver(orderPort, sampler, tracker);
+                long loadStart = System.nanoTime();
+                long offered = driver.run(config.rate(), config.duration());
+                log.info("Offered {} orders, draining for up to {}", offered, config.drainTimeout());
+
+                long drainDeadline = System.nanoTime() + config.drainTimeout().toNanos();
+                while (System.nanoTime() < drainDeadline
+                        && (tracker.paymentsCompleted() < tracker.accepted()
+                            || tracker.inventoryCompleted() < tracker.accepted())) {
+                    Thread.sleep(POLL_INTERVAL.toMillis());
+                }
+                double elapsedSeconds = (System.nanoTime() - loadStart) / 1e9;
+                poller.shutdown();
+                poller.awaitTermination(5, TimeUnit.SECONDS);
+                tracker.poll();
+                lag.sample();
+
+                report(config, offered, driver, tracker, lag, elapsedSeconds);
+                if (tracker.paymentsCompleted() < tracker.accepted() || tracker.inventoryCompleted() < tracker.accepted()) {
+                    exitCode = 2;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Load harness failed", e);
+            exitCode = 1;
+        }
+        // The services' non-daemon threads would otherwise keep the JVM alive
+        System.exit(exitCode);
+    }
+
+    private static List<String> serviceArgs(EmbeddedInfrastructure infra, HarnessConfig config, int port,
+                                            String... extra) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=" + port,
+                "--eureka.client.enabled=false",
+                "--spring.cloud.discovery.enabled=false",
+                "--spring.cloud.stream.kafka.binder.brokers=" + infra.kafkaBrokers(),
+                // Keep the services from growing the topic past the configured partition count
+                "--spring.cloud.stream.kafka.binder.min-partition-count=" + config.partitions(),
+                "--spring.datasource.username=user",
+                "--spring.datasource.password=password",
+                "--spring.jpa.show-sql=false",
+                "--spring.jmx.enabled=false",
+                "--management.tracing.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.example=WARN"));
+        args.addAll(List.of(extra));
+        return args;
+    }
+
+    /**
+     * Tops the seeded SKUs up to an effectively unlimited quantity and adds synthetic SKUs so
+     * the Zipf tail has somewhere to land. Returns SKU to starting quantity, hottest first.
+     */
+    private static Map<String, Integer> seedInventory(int skus) throws SQLException {
+        Map<String, Integer> inventory = new LinkedHashMap<>();
+        try (Connection connection = DriverManager.getConnection(SHOPPING_DB, "user", "password")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("UPDATE inventory SET quantity = " + SEEDED_QUANTITY);
+            }
+            int existing;
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM inventory")) {
+                rs.next();
+                existing = rs.getInt(1);
+            }
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO inventory (sku_code, name, price, original_price, quantity) VALUES (?, ?, ?, ?, ?)")) {
+                for (int i = existing; i < skus; i++) {
+                    insert.setString(1, "HARNESS-SKU-" + i);
+                    insert.setString(2, "Harness item " + i);
+                    insert.setDouble(3, 10.0);
+                    insert.setDouble(4, 10.0);
+                    insert.setInt(5, SEEDED_QUANTITY);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SELECT sku_code, quantity FROM inventory ORDER BY id")) {
+                while (rs.next() && inventory.size() < skus) {
+                    inventory.put(rs.getString(1), rs.getInt(2));
+                }
+            }
+        }
+        return inventory;
+    }
+
+    /**
+     * With {@code read-replica=true}, adds a replica pool on a second connection to the same
+     * in-memory database, so read-only transactions take the routed path. H2 has no replication
+     * lag to query, so the lag check only tests connectivity; routing between two separate
+     * databases is covered by read-replica's own tests.
+     */
+    private static String[] withReplica(HarnessConfig config, String url, String... args) {
+        if (!config.readReplica()) {
+            return args;
+        }
+        List<String> all = new ArrayList<>(List.of(args));
+        all.add("--datasource.replica.url=" + url);
+        all.add("--datasource.replica.lag-query=");
+        return all.toArray(String[]::new);
+    }
+
+    private static void report(HarnessConfig config, long offered, OrderDriver driver, CompletionTracker tracker,
+                               LagMonitor lag, double elapsedSeconds) {
+        System.out.println();
+        System.out.println("=== Load harness results ===");
+        System.out.printf("offered rate        %d/s for %s (%d SKUs, zipf %.2f, %d partitions, %s inventory, group commit %s, read replica %s)%n",
+                config.rate(), config.duration(), config.skus(), config.zipfExponent(), config.partitions(),
+                config.inventoryMode(), config.groupCommit() ? "on" : "off", config.readReplica() ? "on" : "off");
+        System.out.printf("orders              offered=%d accepted=%d failed=%d%n",
+                offered, tracker.accepted(), driver.failures());
+        System.out.printf("throughput          payments=%.1f/s inventory=%.1f/s%n",
+                tracker.paymentsCompleted() / elapsedSeconds, tracker.inventoryCompleted() / elapsedSeconds);
+        System.out.println("place order         " + driver.placeLatency().summary());
+        System.out.println("order -> payment    " + tracker.paymentLatency().summary());
+        System.out.println("order -> inventory  " + tracker.inventoryLatency().summary());
+        lag.summary().forEach((group, summary) -> System.out.printf("lag %-15s %s%n", group, summary));
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
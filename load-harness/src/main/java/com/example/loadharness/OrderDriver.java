@@ -0,0 +1,93 @@
+package com.example.loadharness;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop order generator: submits orders on a fixed schedule regardless of how fast
+ * order-service answers, so a slow service shows up as latency rather than as a lower offered
+ * rate (no coordinated omission).
+ */
+final class OrderDriver {
+
+    private static final String ORDER_NUMBER_PREFIX = "Order Number: ";
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final URI ordersUri;
+    private final ZipfSampler skus;
+    private final CompletionTracker tracker;
+    private final LatencyRecorder placeLatency = new LatencyRecorder();
+    private final AtomicLong failures = new AtomicLong();
+    private final ConcurrentLinkedQueue<CompletableFuture<?>> inFlight = new ConcurrentLinkedQueue<>();
+
+    OrderDriver(int orderServicePort, ZipfSampler skus, CompletionTracker tracker) {
+        this.ordersUri = URI.create("http://localhost:" + orderServicePort + "/api/orders");
+        this.skus = skus;
+        this.tracker = tracker;
+    }
+
+    /**
+     * Offers {@code rate} orders per second for {@code duration}, then waits for outstanding
+     * HTTP responses. Returns the number of orders offered.
+     */
+    long run(int rate, Duration duration) {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long sent = 0;
+
+        for (long next = start; next < end; next += intervalNanos) {
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            // Latency is measured from the intended send time, not from when we got round to it
+            submit(skus.next(), next);
+            sent++;
+            inFlight.removeIf(CompletableFuture::isDone);
+        }
+
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).join();
+        return sent;
+    }
+
+    private void submit(String skuCode, long intendedNanos) {
+        CompletionTracker.Submission submission = tracker.submitted(skuCode, intendedNanos);
+        String body = "{\"skuCode\":\"" + skuCode + "\",\"price\":10.00,\"quantity\":1}";
+        HttpRequest request = HttpRequest.newBuilder(ordersUri)
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+
+        inFlight.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    placeLatency.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - intendedNanos));
+                    int idx = response == null ? -1 : response.body().indexOf(ORDER_NUMBER_PREFIX);
+                    if (error != null || response.statusCode() != 201 || idx < 0) {
+                        failures.incrementAndGet();
+                        tracker.failed(submission);
+                        return;
+                    }
+                    tracker.accepted(submission, response.body().substring(idx + ORDER_NUMBER_PREFIX.length()).trim());
+                }));
+    }
+
+    LatencyRecorder placeLatency() {
+        return placeLatency;
+    }
+
+    long failures() {
+        return failures.get();
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.loadharness;
+
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Boots a service from its Spring Boot executable jar inside this JVM. Each jar gets its own
+ * class loader rooted at the platform loader, so the services' identically named classes
+ * (com.example.dto.OrderEvent, com.example.config.AsyncConfig, ...) and their copies of Spring
+ * never meet. Only the H2 driver is shared, which is what lets the harness read the services'
+ * in-memory databases.
+ */
+final class ServiceLauncher {
+
+    private static final String JAR_LAUNCHER = "org.springframework.boot.loader.launch.JarLauncher";
+    private static final String SHARED_PACKAGE = "org.h2.";
+
+    private ServiceLauncher() {
+    }
+
+    /**
+     * Starts the service and returns once its application context is fully refreshed.
+     */
+    static void launch(String name, Path jar, List<String> args) throws Exception {
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException(name + " jar not found at " + jar.toAbsolutePath()
+                    + " - run 'mvn package -DskipTests' first or pass " + name + "-jar=<path>");
+        }
+
+        // The launcher locates its archive from its own code source, so it must be loaded from the jar
+        URLClassLoader launcherLoader = new URLClassLoader(name + "-launcher",
+                new URL[] { jar.toUri().toURL() }, new SharedPackageClassLoader());
+        Class<?> launcherClass = launcherLoader.loadClass(JAR_LAUNCHER);
+        Method main = launcherClass.getMethod("main", String[].class);
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        // Own thread so the launcher's context class loader doesn't leak into the harness
+        Thread thread = new Thread(() -> {
+            try {
+                main.invoke(null, (Object) args.toArray(String[]::new));
+            } catch (Throwable e) {
+                failure.set(e.getCause() != null ? e.getCause() : e);
+            }
+        }, name + "-main");
+        thread.start();
+        thread.join();
+
+        if (failure.get() != null) {
+            throw new IllegalStateException(name + " failed to start", failure.get());
+        }
+    }
+
+    /**
+     * Exposes only the shared package from the harness classpath on top of the platform loader.
+     */
+    private static final class SharedPackageClassLoader extends ClassLoader {
+
+        private final ClassLoader harness = ServiceLauncher.class.getClassLoader();
+
+        SharedPackageClassLoader() {
+            super("harness-shared", ClassLoader.getPlatformClassLoader());
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            if (name.startsWith(SHARED_PACKAGE)) {
+                return harness.loadClass(name);
+            }
+            throw new ClassNotFoundException(name);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.loadharness;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks SKUs with Zipf-distributed popularity: the first SKU is the hottest, and the exponent
+ * controls how sharply demand falls off (0 = uniform).
+ */
+final class ZipfSampler {
+
+    private final List<String> skus;
+    private final double[] cumulative;
+
+    ZipfSampler(List<String> skus, double exponent) {
+        this.skus = skus;
+        this.cumulative = new double[skus.size()];
+        double total = 0;
+        for (int i = 0; i < skus.size(); i++) {
+            total += 1.0 / Math.pow(i + 1, exponent);
+            cumulative[i] = total;
+        }
+        for (int i = 0; i < cumulative.length; i++) {
+            cumulative[i] /= total;
+        }
+    }
+
+    String next() {
+        int index = Arrays.binarySearch(cumulative, ThreadLocalRandom.current().nextDouble());
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return skus.get(Math.min(index, skus.size() - 1));
+    }
+}
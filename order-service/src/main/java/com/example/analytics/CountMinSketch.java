@@ -0,0 +1,96 @@
+package com.example.analytics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Count-Min sketch with conservative update: {@code depth} rows of {@code width} counters. An
+ * estimate never under-counts and, with high probability, over-counts by at most about
+ * {@code e / width} of the total weight added. Not thread-safe.
+ */
+final class CountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final long[][] cells;
+
+    CountMinSketch(int depth, int width) {
+        this.depth = depth;
+        this.width = width;
+        this.cells = new long[depth][width];
+    }
+
+    void add(String key, long weight) {
+        long hash = hash(key);
+        int[] indexes = new int[depth];
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            indexes[row] = index(hash, row);
+            estimate = Math.min(estimate, cells[row][indexes[row]]);
+        }
+        // Conservative update: only raise cells that would otherwise fall below the new estimate
+        long target = estimate + weight;
+        for (int row = 0; row < depth; row++) {
+            if (cells[row][indexes[row]] < target) {
+                cells[row][indexes[row]] = target;
+            }
+        }
+    }
+
+    long estimate(String key) {
+        long hash = hash(key);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, cells[row][index(hash, row)]);
+        }
+        return estimate;
+    }
+
+    int depth() {
+        return depth;
+    }
+
+    int width() {
+        return width;
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        for (long[] row : cells) {
+            for (long cell : row) {
+                out.writeLong(cell);
+            }
+        }
+    }
+
+    static CountMinSketch readFrom(DataInput in, int depth, int width) throws IOException {
+        CountMinSketch sketch = new CountMinSketch(depth, width);
+        for (long[] row : sketch.cells) {
+            for (int i = 0; i < width; i++) {
+                row[i] = in.readLong();
+            }
+        }
+        return sketch;
+    }
+
+    // Row i uses h1 + i * h2 (Kirsch-Mitzenmacher), both halves of one 64-bit hash
+    private int index(long hash, int row) {
+        int combined = (int) hash + row * (int) (hash >>> 32);
+        return Math.floorMod(combined, width);
+    }
+
+    private static long hash(String key) {
+        // FNV-1a over the chars, then a murmur3 finalizer to spread the bits
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
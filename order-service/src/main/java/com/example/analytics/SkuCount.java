@@ -0,0 +1,8 @@
+package com.example.analytics;
+
+/**
+ * A SKU's ordered quantity in a window: {@code quantity} is an upper bound (the sketches never
+ * under-count) and {@code minQuantity} a guaranteed lower bound.
+ */
+public record SkuCount(String skuCode, long quantity, long minQuantity) {
+}
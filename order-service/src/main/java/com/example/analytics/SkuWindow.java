@@ -0,0 +1,165 @@
+package com.example.analytics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A sliding window of SKU quantities made of {@code buckets} fixed-width time buckets, each with
+ * its own {@link SpaceSaving} summary and {@link CountMinSketch}. Old buckets are overwritten
+ * in place as time moves on, so memory stays fixed. Queries combine the live buckets.
+ */
+final class SkuWindow {
+
+    private static final class Bucket {
+        final long start;
+        final SpaceSaving topK;
+        final CountMinSketch counts;
+
+        Bucket(long start, SpaceSaving topK, CountMinSketch counts) {
+            this.start = start;
+            this.topK = topK;
+            this.counts = counts;
+        }
+    }
+
+    private final String name;
+    private final long bucketMillis;
+    private final int capacity;
+    private final int sketchDepth;
+    private final int sketchWidth;
+    private final Bucket[] ring;
+
+    SkuWindow(String name, long bucketMillis, int buckets, int capacity, int sketchDepth, int sketchWidth) {
+        this.name = name;
+        this.bucketMillis = bucketMillis;
+        this.capacity = capacity;
+        this.sketchDepth = sketchDepth;
+        this.sketchWidth = sketchWidth;
+        this.ring = new Bucket[buckets];
+    }
+
+    String name() {
+        return name;
+    }
+
+    /**
+     * Adds an order placed at {@code timeMillis}; orders older than the window are ignored.
+     */
+    synchronized void add(String skuCode, long quantity, long timeMillis, long nowMillis) {
+        long start = bucketStart(Math.min(timeMillis, nowMillis));
+        if (start < oldestLiveStart(nowMillis)) {
+            return;
+        }
+        int slot = slot(start);
+        Bucket bucket = ring[slot];
+        if (bucket == null || bucket.start < start) {
+            bucket = new Bucket(start, new SpaceSaving(capacity), new CountMinSketch(sketchDepth, sketchWidth));
+            ring[slot] = bucket;
+        }
+        bucket.topK.add(skuCode, quantity);
+        bucket.counts.add(skuCode, quantity);
+    }
+
+    /**
+     * The {@code limit} SKUs with the highest estimated quantity over the window ending now.
+     */
+    synchronized List<SkuCount> top(int limit, long nowMillis) {
+        List<Bucket> live = live(nowMillis);
+        Set<String> candidates = new HashSet<>();
+        for (Bucket bucket : live) {
+            bucket.topK.counters().forEach(counter -> candidates.add(counter.key));
+        }
+
+        List<SkuCount> counts = new ArrayList<>(candidates.size());
+        for (String skuCode : candidates) {
+            long upper = 0;
+            long lower = 0;
+            long sketched = 0;
+            for (Bucket bucket : live) {
+                SpaceSaving.Counter counter = bucket.topK.get(skuCode);
+                // Untracked in this bucket: its quantity there is at most the bucket's smallest counter
+                upper += counter != null ? counter.count : bucket.topK.minCount();
+                lower += counter != null ? counter.count - counter.error : 0;
+                sketched += bucket.counts.estimate(skuCode);
+            }
+            counts.add(new SkuCount(skuCode, Math.min(upper, sketched), lower));
+        }
+        counts.sort(Comparator.comparingLong(SkuCount::quantity).reversed()
+                .thenComparing(SkuCount::skuCode));
+        return counts.size() > limit ? List.copyOf(counts.subList(0, limit)) : counts;
+    }
+
+    /**
+     * Start of the oldest bucket that still counts towards the window: the current, partial
+     * bucket plus {@code buckets - 1} full ones.
+     */
+    long oldestLiveStart(long nowMillis) {
+        return bucketStart(nowMillis) - (ring.length - 1) * bucketMillis;
+    }
+
+    synchronized void writeTo(DataOutput out, long nowMillis) throws IOException {
+        writeShape(out);
+        List<Bucket> live = live(nowMillis);
+        out.writeInt(live.size());
+        for (Bucket bucket : live) {
+            out.writeLong(bucket.start);
+            bucket.topK.writeTo(out);
+            bucket.counts.writeTo(out);
+        }
+    }
+
+    /**
+     * Restores buckets written by {@link #writeTo}; returns false, leaving the window empty, if
+     * they were written with a different bucket layout or sketch size.
+     */
+    synchronized boolean readFrom(DataInput in, long nowMillis) throws IOException {
+        boolean sameShape = in.readLong() == bucketMillis && in.readInt() == ring.length
+                && in.readInt() == capacity && in.readInt() == sketchDepth && in.readInt() == sketchWidth;
+        if (!sameShape) {
+            return false;
+        }
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            long start = in.readLong();
+            Bucket bucket = new Bucket(start, SpaceSaving.readFrom(in, capacity),
+                    CountMinSketch.readFrom(in, sketchDepth, sketchWidth));
+            if (start >= oldestLiveStart(nowMillis)) {
+                ring[slot(start)] = bucket;
+            }
+        }
+        return true;
+    }
+
+    private void writeShape(DataOutput out) throws IOException {
+        out.writeLong(bucketMillis);
+        out.writeInt(ring.length);
+        out.writeInt(capacity);
+        out.writeInt(sketchDepth);
+        out.writeInt(sketchWidth);
+    }
+
+    private List<Bucket> live(long nowMillis) {
+        long oldest = oldestLiveStart(nowMillis);
+        List<Bucket> live = new ArrayList<>(ring.length);
+        for (Bucket bucket : ring) {
+            if (bucket != null && bucket.start >= oldest) {
+                live.add(bucket);
+            }
+        }
+        return live;
+    }
+
+    private long bucketStart(long millis) {
+        return Math.floorDiv(millis, bucketMillis) * bucketMillis;
+    }
+
+    private int slot(long start) {
+        return (int) Math.floorMod(Math.floorDiv(start, bucketMillis), (long) ring.length);
+    }
+}
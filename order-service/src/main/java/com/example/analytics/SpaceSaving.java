@@ -0,0 +1,104 @@
+package com.example.analytics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Weighted Space-Saving summary: at most {@code capacity} counters, so memory is fixed however
+ * many SKUs there are. A new key evicts the smallest counter and inherits its count as error, so
+ * every tracked count over-estimates the true total by at most its {@code error}, and any key
+ * not tracked has a true total of at most {@link #minCount()}. Not thread-safe.
+ */
+final class SpaceSaving {
+
+    static final class Counter {
+        final String key;
+        long count;
+        long error;
+
+        Counter(String key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+    }
+
+    private static final Comparator<Counter> BY_COUNT =
+            Comparator.<Counter>comparingLong(c -> c.count).thenComparing(c -> c.key);
+
+    private final int capacity;
+    private final Map<String, Counter> counters;
+    private final TreeSet<Counter> byCount = new TreeSet<>(BY_COUNT);
+
+    SpaceSaving(int capacity) {
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    void add(String key, long weight) {
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            // Re-insert: the set is ordered by count
+            byCount.remove(counter);
+            counter.count += weight;
+            byCount.add(counter);
+            return;
+        }
+        long inherited = 0;
+        if (counters.size() >= capacity) {
+            Counter evicted = byCount.pollFirst();
+            counters.remove(evicted.key);
+            inherited = evicted.count;
+        }
+        counter = new Counter(key, inherited + weight, inherited);
+        counters.put(key, counter);
+        byCount.add(counter);
+    }
+
+    Counter get(String key) {
+        return counters.get(key);
+    }
+
+    /**
+     * Upper bound on the total of any key that is not tracked.
+     */
+    long minCount() {
+        return counters.size() < capacity ? 0 : byCount.first().count;
+    }
+
+    Collection<Counter> counters() {
+        return counters.values();
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeInt(counters.size());
+        for (Counter counter : counters.values()) {
+            out.writeUTF(counter.key);
+            out.writeLong(counter.count);
+            out.writeLong(counter.error);
+        }
+    }
+
+    static SpaceSaving readFrom(DataInput in, int capacity) throws IOException {
+        SpaceSaving summary = new SpaceSaving(capacity);
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            Counter counter = new Counter(in.readUTF(), in.readLong(), in.readLong());
+            if (summary.counters.size() < capacity) {
+                summary.counters.put(counter.key, counter);
+                summary.byCount.add(counter);
+            }
+        }
+        return summary;
+    }
+}
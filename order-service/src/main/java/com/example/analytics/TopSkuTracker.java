@@ -0,0 +1,143 @@
+package com.example.analytics;
+
+import com.example.dto.OrderEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Live best-seller tracking over the last hour and the last day, in fixed memory per window
+ * whatever the catalogue size (see {@link SkuWindow}). Fed from the {@code order-events}
+ * stream, so every instance sees every order. The windows are snapshotted to disk periodically
+ * and on shutdown, and restored on start, so a restart does not empty them.
+ */
+@Component
+@Slf4j
+public class TopSkuTracker {
+
+    public static final String HOUR = "hour";
+    public static final String DAY = "day";
+
+    private static final int MAGIC = 0x544F5053; // "TOPS"
+
+    private final Map<String, SkuWindow> windows = new LinkedHashMap<>();
+    private final Path snapshotFile;
+
+    public TopSkuTracker(@Value("${order.top-skus.capacity:1000}") int capacity,
+                         @Value("${order.top-skus.sketch-depth:4}") int sketchDepth,
+                         @Value("${order.top-skus.sketch-width:2048}") int sketchWidth,
+                         @Value("${order.top-skus.snapshot-file:./data/top-skus.snapshot}") Path snapshotFile) {
+        this.snapshotFile = snapshotFile;
+        // 12 x 5 minutes and 24 x 1 hour
+        windows.put(HOUR, new SkuWindow(HOUR, Duration.ofMinutes(5).toMillis(), 12, capacity, sketchDepth, sketchWidth));
+        windows.put(DAY, new SkuWindow(DAY, Duration.ofHours(1).toMillis(), 24, capacity, sketchDepth, sketchWidth));
+    }
+
+    public void record(OrderEvent event) {
+        if (event.getSkuCode() == null || event.getQuantity() == null || event.getQuantity() <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        // Bucket by order time, so redelivered or lagging events land where they belong
+        long orderedAt = event.getCreatedAt() != null ? event.getCreatedAt() : now;
+        for (SkuWindow window : windows.values()) {
+            window.add(event.getSkuCode(), event.getQuantity(), orderedAt, now);
+        }
+    }
+
+    /**
+     * Best sellers for {@code window} ({@code hour} or {@code day}; anything else means hour).
+     */
+    public TopSkus top(String window, int limit) {
+        SkuWindow sketch = windows.getOrDefault(window.toLowerCase(), windows.get(HOUR));
+        long now = System.currentTimeMillis();
+        LocalDateTime since = LocalDateTime.ofInstant(Instant.ofEpochMilli(sketch.oldestLiveStart(now)), ZoneId.systemDefault());
+        return new TopSkus(sketch.name(), since, sketch.top(limit, now));
+    }
+
+    @PostConstruct
+    void restore() {
+        if (!Files.exists(snapshotFile)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+            if (in.readInt() != MAGIC) {
+                log.warn("Ignoring {}: not a top-SKU snapshot", snapshotFile);
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                byte[] block = new byte[in.readInt()];
+                in.readFully(block);
+                SkuWindow window = windows.get(name);
+                if (window != null && !window.readFrom(new DataInputStream(new ByteArrayInputStream(block)), now)) {
+                    log.warn("Top-SKU window {} was saved with different settings, starting it empty", name);
+                }
+            }
+            log.info("Restored top-SKU windows from {}", snapshotFile.toAbsolutePath());
+        } catch (IOException e) {
+            // Windows refill from the stream; not worth failing startup over
+            log.warn("Could not restore top-SKU windows from {}", snapshotFile, e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        snapshot();
+    }
+
+    @Scheduled(fixedDelayString = "${order.top-skus.snapshot-interval:PT1M}", initialDelayString = "${order.top-skus.snapshot-interval:PT1M}")
+    public void snapshot() {
+        long now = System.currentTimeMillis();
+        Path tmp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(snapshotFile.toAbsolutePath().getParent());
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                OutputStream stream = Channels.newOutputStream(channel);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+                out.writeInt(MAGIC);
+                out.writeInt(windows.size());
+                for (SkuWindow window : windows.values()) {
+                    // Length-prefixed, so a window whose settings changed can be skipped on restore
+                    ByteArrayOutputStream block = new ByteArrayOutputStream();
+                    window.writeTo(new DataOutputStream(block), now);
+                    out.writeUTF(window.name());
+                    out.writeInt(block.size());
+                    block.writeTo(out);
+                }
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(tmp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not snapshot top-SKU windows to {}", snapshotFile, e);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.analytics;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record TopSkus(String window, LocalDateTime since, List<SkuCount> skus) {
+}
@@ -0,0 +1,166 @@
+package com.example.archive;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Byte-level encodings shared by the segment writer and reader: zigzag varints for numbers
+ * (sorted columns are delta-encoded first, so values stay small), length-prefixed UTF-8 strings,
+ * and dictionary encoding for low-cardinality strings.
+ */
+final class ColumnEncoding {
+
+    private ColumnEncoding() {
+    }
+
+    static final class Writer {
+
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        void varLong(long value) {
+            long zigzag = (value << 1) ^ (value >> 63);
+            while ((zigzag & ~0x7FL) != 0) {
+                out.write((int) ((zigzag & 0x7F) | 0x80));
+                zigzag >>>= 7;
+            }
+            out.write((int) zigzag);
+        }
+
+        /**
+         * Nullable values are shifted by one so that 0 can mean null.
+         */
+        void nullableLong(Long value) {
+            if (value == null) {
+                varLong(0);
+            } else {
+                varLong(value >= 0 ? value + 1 : value);
+            }
+        }
+
+        void string(String value) {
+            if (value == null) {
+                varLong(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            varLong(bytes.length);
+            out.write(bytes, 0, bytes.length);
+        }
+
+        void dictionary(List<String> values) {
+            Map<String, Integer> codes = new HashMap<>();
+            List<String> dictionary = new ArrayList<>();
+            int[] encoded = new int[values.size()];
+            for (int i = 0; i < values.size(); i++) {
+                String value = values.get(i);
+                // null gets its own code so it round-trips
+                encoded[i] = codes.computeIfAbsent(value == null ? "\0null" : value, v -> {
+                    dictionary.add(value);
+                    return dictionary.size() - 1;
+                });
+            }
+            varLong(dictionary.size());
+            dictionary.forEach(this::string);
+            for (int code : encoded) {
+                varLong(code);
+            }
+        }
+
+        byte[] deflated() {
+            byte[] raw = out.toByteArray();
+            Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+            try {
+                deflater.setInput(raw);
+                deflater.finish();
+                ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+                byte[] buffer = new byte[8192];
+                while (!deflater.finished()) {
+                    compressed.write(buffer, 0, deflater.deflate(buffer));
+                }
+                return compressed.toByteArray();
+            } finally {
+                deflater.end();
+            }
+        }
+    }
+
+    static final class Reader {
+
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        static Reader inflate(byte[] compressed) {
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(compressed);
+                ByteArrayOutputStream raw = new ByteArrayOutputStream(compressed.length * 4);
+                byte[] buffer = new byte[8192];
+                while (!inflater.finished()) {
+                    int n = inflater.inflate(buffer);
+                    if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        throw new IllegalStateException("Truncated segment column");
+                    }
+                    raw.write(buffer, 0, n);
+                }
+                return new Reader(raw.toByteArray());
+            } catch (DataFormatException e) {
+                throw new IllegalStateException("Corrupt segment column", e);
+            } finally {
+                inflater.end();
+            }
+        }
+
+        long varLong() {
+            long zigzag = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                zigzag |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+
+        Long nullableLong() {
+            long value = varLong();
+            if (value == 0) {
+                return null;
+            }
+            return value > 0 ? value - 1 : value;
+        }
+
+        String string() {
+            int length = (int) varLong();
+            if (length < 0) {
+                return null;
+            }
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        String[] dictionary(int rows) {
+            String[] dictionary = new String[(int) varLong()];
+            for (int i = 0; i < dictionary.length; i++) {
+                dictionary[i] = string();
+            }
+            String[] values = new String[rows];
+            for (int i = 0; i < rows; i++) {
+                values[i] = dictionary[(int) varLong()];
+            }
+            return values;
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.example.archive;
+
+import com.example.model.Order;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Cold storage for orders: immutable, compressed columnar segment files in a directory shared by
+ * every instance, indexed in memory by each segment's time range. Queries skip segments outside
+ * the requested range and only open the columns they need.
+ * <p>
+ * A segment becomes a {@code .seg} file only after its rows are gone from the hot table; until
+ * then it is {@code .pending}. Each instance rescans the directory to pick up segments written
+ * by the archiving instance.
+ */
+@Component
+@Slf4j
+public class OrderArchive {
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String PENDING_SUFFIX = ".pending";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final long MISS_RESCAN_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final boolean enabled;
+    private final Path directory;
+    private volatile List<SegmentMetadata> segments = List.of();
+    private volatile long lastScanNanos;
+
+    public OrderArchive(@Value("${order.archive.enabled:false}") boolean enabled,
+                        @Value("${order.archive.directory:./data/order-archive}") Path directory,
+                        MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.directory = directory;
+        Gauge.builder("order.archive.segments", this, archive -> archive.segments.size()).register(meterRegistry);
+        Gauge.builder("order.archive.rows", this,
+                        archive -> archive.segments.stream().mapToLong(SegmentMetadata::rowCount).sum())
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    void load() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(directory);
+        refresh();
+        log.info("Loaded {} order archive segments from {}", segments.size(), directory.toAbsolutePath());
+    }
+
+    @Scheduled(fixedDelayString = "${order.archive.rescan-interval:PT1M}", initialDelayString = "${order.archive.rescan-interval:PT1M}")
+    public void rescan() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            refresh();
+        } catch (IOException e) {
+            log.warn("Could not rescan order archive {}", directory, e);
+        }
+    }
+
+    /**
+     * Brings the in-memory index in line with the {@code .seg} files on disk. Returns whether it changed.
+     */
+    synchronized boolean refresh() throws IOException {
+        lastScanNanos = System.nanoTime();
+        Map<Path, SegmentMetadata> known = new HashMap<>();
+        for (SegmentMetadata segment : segments) {
+            known.put(segment.file(), segment);
+        }
+        List<SegmentMetadata> current = new ArrayList<>();
+        boolean changed = false;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(SEGMENT_SUFFIX)).toList()) {
+                SegmentMetadata segment = known.remove(file);
+                if (segment == null) {
+                    segment = OrderSegmentFiles.readMetadata(file);
+                    changed = true;
+                }
+                current.add(segment);
+            }
+        }
+        if (changed || !known.isEmpty()) {
+            current.sort(Comparator.comparingLong(SegmentMetadata::minTime));
+            segments = List.copyOf(current);
+            return true;
+        }
+        return false;
+    }
+
+    public Optional<Order> findByOrderNumber(String orderNumber) {
+        Optional<Order> order = find(segments, orderNumber);
+        // The order may have been archived by another instance since the last rescan
+        if (order.isEmpty() && System.nanoTime() - lastScanNanos > MISS_RESCAN_INTERVAL_NANOS
+                && read(this::refresh)) {
+            order = find(segments, orderNumber);
+        }
+        return order;
+    }
+
+    private static Optional<Order> find(List<SegmentMetadata> segments, String orderNumber) {
+        // Newest first: recent orders are the likeliest to be looked up
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            SegmentMetadata segment = segments.get(i);
+            if (segment.mightContain(orderNumber)) {
+                Optional<Order> order = read(() -> OrderSegmentFiles.find(segment, orderNumber));
+                if (order.isPresent()) {
+                    return order;
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Total quantity of archived orders placed strictly after {@code time}, consistent with a
+     * hot-table read made in the same database snapshot. A segment is counted only if its rows
+     * are gone from that snapshot, which {@code stillInHot} reports given one order id per
+     * segment (an archiver deletes a segment's rows in one transaction). Pending segments are
+     * included too, since their rows may already be deleted, so a concurrent archiver run can
+     * neither count a batch twice nor drop it.
+     */
+    public long sumQuantitySince(LocalDateTime time, Function<Collection<Long>, Collection<Long>> stillInHot) {
+        long since = OrderSegmentFiles.toEpochMillis(time);
+        Map<String, SegmentMetadata> candidates = new HashMap<>();
+        // Pending first: one published in between then shows up in the rescan instead of neither
+        for (SegmentMetadata segment : read(this::pending)) {
+            if (segment.overlaps(since + 1)) {
+                candidates.put(baseName(segment.file()), segment);
+            }
+        }
+        read(this::refresh);
+        for (SegmentMetadata segment : segments) {
+            if (segment.overlaps(since + 1)) {
+                candidates.put(baseName(segment.file()), segment);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+
+        Set<Long> present = new HashSet<>(stillInHot.apply(
+                candidates.keySet().stream().map(OrderArchive::sampleId).toList()));
+        long sum = 0;
+        for (Map.Entry<String, SegmentMetadata> candidate : candidates.entrySet()) {
+            SegmentMetadata segment = candidate.getValue();
+            if (present.contains(sampleId(candidate.getKey()))) {
+                continue;
+            }
+            if (segment.coveredFrom(since)) {
+                sum += segment.totalQuantity();
+            } else {
+                sum += read(() -> OrderSegmentFiles.sumQuantityAfter(segment, since));
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Writes a pending segment; queries don't see it until {@link #publish}.
+     */
+    SegmentMetadata write(List<Order> orders) throws IOException {
+        long minTime = OrderSegmentFiles.toEpochMillis(orders.get(0).getOrderTime());
+        long maxTime = OrderSegmentFiles.toEpochMillis(orders.get(orders.size() - 1).getOrderTime());
+        Path file = directory.resolve(String.format("orders-%013d-%013d-%d%s",
+                minTime, maxTime, orders.get(0).getId(), PENDING_SUFFIX));
+        return OrderSegmentFiles.write(file, orders);
+    }
+
+    /**
+     * Makes a pending segment visible to queries on every instance, once its rows are gone from
+     * the hot table.
+     */
+    synchronized void publish(SegmentMetadata pending) throws IOException {
+        String name = pending.file().getFileName().toString();
+        Path target = pending.file().resolveSibling(
+                name.substring(0, name.length() - PENDING_SUFFIX.length()) + SEGMENT_SUFFIX);
+        Files.move(pending.file(), target, StandardCopyOption.ATOMIC_MOVE);
+        List<SegmentMetadata> next = new ArrayList<>(segments);
+        next.add(pending.withFile(target));
+        next.sort(Comparator.comparingLong(SegmentMetadata::minTime));
+        segments = List.copyOf(next);
+    }
+
+    void discard(SegmentMetadata segment) {
+        try {
+            Files.deleteIfExists(segment.file());
+        } catch (IOException e) {
+            log.error("Could not delete unpublished segment {}", segment.file(), e);
+        }
+    }
+
+    private List<SegmentMetadata> pending() throws IOException {
+        List<SegmentMetadata> pending = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(PENDING_SUFFIX)).toList()) {
+                try {
+                    pending.add(OrderSegmentFiles.readMetadata(file));
+                } catch (NoSuchFileException e) {
+                    // Published since the listing
+                }
+            }
+        }
+        return pending;
+    }
+
+    /** The segment's file name without its suffix, the same whether pending or published. */
+    private static String baseName(Path file) {
+        String name = file.getFileName().toString();
+        return name.substring(0, name.lastIndexOf('.'));
+    }
+
+    /** The id of the segment's first order, the last part of its base name (see {@link #write}). */
+    private static long sampleId(String baseName) {
+        return Long.parseLong(baseName.substring(baseName.lastIndexOf('-') + 1));
+    }
+
+    /**
+     * Segments left pending by an archiver that stopped before publishing them, oldest first.
+     * Also removes temp files from writes that never completed. Only the archiving instance may
+     * call this, since another instance's write would look the same.
+     */
+    List<SegmentMetadata> unpublished() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(TEMP_SUFFIX)).toList()) {
+                // The write never completed, so its rows were never deleted from the hot table
+                Files.deleteIfExists(file);
+            }
+        }
+        List<SegmentMetadata> pending = pending();
+        pending.sort(Comparator.comparingLong(SegmentMetadata::minTime));
+        return pending;
+    }
+
+    private static <T> T read(SegmentRead<T> read) {
+        try {
+            return read.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface SegmentRead<T> {
+        T run() throws IOException;
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.archive;
+
+import com.example.model.Order;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Moves orders older than {@code order.archive.max-age} out of the hot table into archive
+ * segments, oldest first, {@code batch-size} orders per segment. A segment is written and
+ * fsynced as pending before its rows are deleted, and published after the delete commits; if
+ * the process dies in between, the next archiver run deletes the rows and publishes it.
+ * <p>
+ * Only one instance archives at a time, serialized by a Postgres advisory lock held on its own
+ * connection for the run; the lock goes away with the connection if the instance dies.
+ */
+@Component
+@Slf4j
+public class OrderArchiver {
+
+    private static final String SELECT_SQL = "SELECT id, order_number, sku_code, price, quantity, status, order_time "
+            + "FROM orders WHERE order_time < ? ORDER BY order_time, id LIMIT ?";
+    private static final String DELETE_SQL = "DELETE FROM orders WHERE id = ?";
+    private static final long ARCHIVER_LOCK_KEY = 0x6f72646572617263L; // "orderarc"
+
+    private static final RowMapper<Order> ORDER_ROW = (rs, rowNum) -> Order.builder()
+            .id(rs.getLong("id"))
+            .orderNumber(rs.getString("order_number"))
+            .skuCode(rs.getString("sku_code"))
+            .price(rs.getBigDecimal("price"))
+            .quantity(rs.getObject("quantity", Integer.class))
+            .status(rs.getString("status"))
+            .orderTime(rs.getTimestamp("order_time").toLocalDateTime())
+            .build();
+
+    private final OrderArchive orderArchive;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration maxAge;
+    private final int batchSize;
+
+    public OrderArchiver(OrderArchive orderArchive,
+                         JdbcTemplate jdbcTemplate,
+                         TransactionTemplate transactionTemplate,
+                         @Value("${order.archive.max-age:30d}") Duration maxAge,
+                         @Value("${order.archive.batch-size:50000}") int batchSize) {
+        this.orderArchive = orderArchive;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.maxAge = maxAge;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${order.archive.interval:PT1H}", initialDelayString = "${order.archive.initial-delay:PT1M}")
+    public void archive() {
+        if (!orderArchive.isEnabled()) {
+            return;
+        }
+        Boolean ran = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            if (!advisoryLock(connection, "pg_try_advisory_lock")) {
+                return false;
+            }
+            try {
+                archiveExclusively();
+            } finally {
+                advisoryLock(connection, "pg_advisory_unlock");
+            }
+            return true;
+        });
+        if (!Boolean.TRUE.equals(ran)) {
+            log.debug("Another instance is archiving orders; skipping this run");
+        }
+    }
+
+    private void archiveExclusively() {
+        try {
+            orderArchive.refresh();
+            recoverUnpublished();
+        } catch (IOException e) {
+            log.error("Could not recover unpublished order archive segments", e);
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minus(maxAge);
+        int archived;
+        int total = 0;
+        do {
+            archived = archiveBatch(cutoff);
+            total += archived;
+        } while (archived == batchSize);
+        if (total > 0) {
+            log.info("Archived {} orders placed before {}", total, cutoff);
+        }
+    }
+
+    private void recoverUnpublished() throws IOException {
+        // A pending segment is complete on disk, so roll it forward rather than back
+        for (SegmentMetadata segment : orderArchive.unpublished()) {
+            long[] ids = OrderSegmentFiles.readIds(segment);
+            Integer removed = transactionTemplate.execute(status -> deleteIds(Arrays.stream(ids).boxed().toList()));
+            orderArchive.publish(segment);
+            log.warn("Published interrupted segment {}, removing {} hot rows", segment.file(), removed);
+        }
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<Order> orders = jdbcTemplate.query(SELECT_SQL, ORDER_ROW, Timestamp.valueOf(cutoff), batchSize);
+        if (orders.isEmpty()) {
+            return 0;
+        }
+
+        SegmentMetadata segment;
+        try {
+            segment = orderArchive.write(orders);
+        } catch (IOException e) {
+            log.error("Could not write order archive segment; orders stay in the hot table", e);
+            return 0;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> deleteIds(orders.stream().map(Order::getId).toList()));
+        } catch (RuntimeException e) {
+            orderArchive.discard(segment);
+            throw e;
+        }
+        try {
+            orderArchive.publish(segment);
+        } catch (IOException e) {
+            // The rows are already deleted; the next run publishes the pending segment
+            log.error("Could not publish order archive segment {}", segment.file(), e);
+            return 0;
+        }
+        return orders.size();
+    }
+
+    private int deleteIds(List<Long> ids) {
+        int deleted = 0;
+        for (int[] batch : jdbcTemplate.batchUpdate(DELETE_SQL, ids, 1000, (ps, id) -> ps.setLong(1, id))) {
+            for (int count : batch) {
+                // Drivers may report SUCCESS_NO_INFO (-2) for batched statements
+                deleted += Math.max(count, 0);
+            }
+        }
+        return deleted;
+    }
+
+    private static boolean advisoryLock(Connection connection, String function) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT " + function + "(?)")) {
+            statement.setLong(1, ARCHIVER_LOCK_KEY);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getBoolean(1);
+            }
+        }
+    }
+}
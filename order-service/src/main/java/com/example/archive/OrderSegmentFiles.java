@@ -0,0 +1,257 @@
+package com.example.archive;
+
+import com.example.model.Order;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads and writes order segment files. A segment is immutable once written: a fixed header
+ * (see {@link SegmentMetadata}) followed by one deflated block per {@link SegmentColumn}.
+ * Rows are sorted by order time, and ids and times are delta-encoded.
+ */
+final class OrderSegmentFiles {
+
+    private static final int MAGIC = 0x4F534731; // "OSG1"
+
+    private OrderSegmentFiles() {
+    }
+
+    static long toEpochMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    static LocalDateTime fromEpochMillis(long millis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000), (int) Math.floorMod(millis, 1000) * 1_000_000,
+                ZoneOffset.UTC);
+    }
+
+    /**
+     * Writes {@code orders} (sorted by order time) to {@code target} via a temp file, fsynced and
+     * atomically renamed, so a crash never leaves a partial segment under a segment name.
+     */
+    static SegmentMetadata write(Path target, List<Order> orders) throws IOException {
+        int rows = orders.size();
+        ColumnEncoding.Writer[] columns = new ColumnEncoding.Writer[SegmentColumn.values().length];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = new ColumnEncoding.Writer();
+        }
+
+        long previousId = 0;
+        long previousTime = 0;
+        long totalQuantity = 0;
+        List<String> orderNumbers = new ArrayList<>(rows);
+        List<String> skuCodes = new ArrayList<>(rows);
+        List<String> statuses = new ArrayList<>(rows);
+        for (Order order : orders) {
+            columns[SegmentColumn.ID.ordinal()].varLong(order.getId() - previousId);
+            previousId = order.getId();
+
+            orderNumbers.add(order.getOrderNumber());
+            columns[SegmentColumn.ORDER_NUMBER.ordinal()].string(order.getOrderNumber());
+            skuCodes.add(order.getSkuCode());
+            statuses.add(order.getStatus());
+
+            // Negative scales are legal but would collide with the null marker
+            BigDecimal price = order.getPrice() == null || order.getPrice().scale() >= 0
+                    ? order.getPrice() : order.getPrice().setScale(0);
+            ColumnEncoding.Writer priceColumn = columns[SegmentColumn.PRICE.ordinal()];
+            if (price == null) {
+                priceColumn.varLong(-1);
+            } else {
+                priceColumn.varLong(price.scale());
+                priceColumn.string(price.unscaledValue().toString());
+            }
+
+            Integer quantity = order.getQuantity();
+            columns[SegmentColumn.QUANTITY.ordinal()].nullableLong(quantity == null ? null : quantity.longValue());
+            totalQuantity += quantity == null ? 0 : quantity;
+
+            long time = toEpochMillis(order.getOrderTime());
+            columns[SegmentColumn.ORDER_TIME.ordinal()].varLong(time - previousTime);
+            previousTime = time;
+        }
+        columns[SegmentColumn.SKU_CODE.ordinal()].dictionary(skuCodes);
+        columns[SegmentColumn.STATUS.ordinal()].dictionary(statuses);
+
+        long minTime = toEpochMillis(orders.get(0).getOrderTime());
+        long maxTime = toEpochMillis(orders.get(rows - 1).getOrderTime());
+        long[] bloom = SegmentMetadata.bloomFor(orderNumbers, rows);
+
+        byte[][] blocks = new byte[columns.length][];
+        for (int i = 0; i < columns.length; i++) {
+            blocks[i] = columns[i].deflated();
+        }
+        long headerLength = 4 + 4 + 8 * 3 + 4 + 8L * bloom.length + (8 + 4) * columns.length;
+        long[] offsets = new long[columns.length];
+        int[] lengths = new int[columns.length];
+        long offset = headerLength;
+        for (int i = 0; i < columns.length; i++) {
+            offsets[i] = offset;
+            lengths[i] = blocks[i].length;
+            offset += blocks[i].length;
+        }
+
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream stream = Channels.newOutputStream(channel);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 64 * 1024));
+            out.writeInt(MAGIC);
+            out.writeInt(rows);
+            out.writeLong(minTime);
+            out.writeLong(maxTime);
+            out.writeLong(totalQuantity);
+            out.writeInt(bloom.length);
+            for (long word : bloom) {
+                out.writeLong(word);
+            }
+            for (int i = 0; i < columns.length; i++) {
+                out.writeLong(offsets[i]);
+                out.writeInt(lengths[i]);
+            }
+            for (byte[] block : blocks) {
+                out.write(block);
+            }
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+
+        return new SegmentMetadata(target, rows, minTime, maxTime, totalQuantity, bloom, offsets, lengths);
+    }
+
+    static SegmentMetadata readMetadata(Path file) throws IOException {
+        try (InputStream stream = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not an order segment: " + file);
+            }
+            int rows = in.readInt();
+            long minTime = in.readLong();
+            long maxTime = in.readLong();
+            long totalQuantity = in.readLong();
+            long[] bloom = new long[in.readInt()];
+            for (int i = 0; i < bloom.length; i++) {
+                bloom[i] = in.readLong();
+            }
+            int columns = SegmentColumn.values().length;
+            long[] offsets = new long[columns];
+            int[] lengths = new int[columns];
+            for (int i = 0; i < columns; i++) {
+                offsets[i] = in.readLong();
+                lengths[i] = in.readInt();
+            }
+            return new SegmentMetadata(file, rows, minTime, maxTime, totalQuantity, bloom, offsets, lengths);
+        }
+    }
+
+    /**
+     * Sums quantity for orders after {@code fromExclusive}, reading only the time and quantity columns.
+     */
+    static long sumQuantityAfter(SegmentMetadata segment, long fromExclusive) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment.file(), StandardOpenOption.READ)) {
+            ColumnEncoding.Reader times = column(channel, segment, SegmentColumn.ORDER_TIME);
+            ColumnEncoding.Reader quantities = column(channel, segment, SegmentColumn.QUANTITY);
+            long time = 0;
+            long sum = 0;
+            for (int i = 0; i < segment.rowCount(); i++) {
+                time += times.varLong();
+                Long quantity = quantities.nullableLong();
+                if (time > fromExclusive && quantity != null) {
+                    sum += quantity;
+                }
+            }
+            return sum;
+        }
+    }
+
+    static Optional<Order> find(SegmentMetadata segment, String orderNumber) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment.file(), StandardOpenOption.READ)) {
+            ColumnEncoding.Reader numbers = column(channel, segment, SegmentColumn.ORDER_NUMBER);
+            for (int i = 0; i < segment.rowCount(); i++) {
+                if (orderNumber.equals(numbers.string())) {
+                    return Optional.of(readRows(channel, segment).get(i));
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    static long[] readIds(SegmentMetadata segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment.file(), StandardOpenOption.READ)) {
+            ColumnEncoding.Reader idColumn = column(channel, segment, SegmentColumn.ID);
+            long[] ids = new long[segment.rowCount()];
+            long id = 0;
+            for (int i = 0; i < ids.length; i++) {
+                id += idColumn.varLong();
+                ids[i] = id;
+            }
+            return ids;
+        }
+    }
+
+    private static List<Order> readRows(FileChannel channel, SegmentMetadata segment) throws IOException {
+        int rows = segment.rowCount();
+        ColumnEncoding.Reader ids = column(channel, segment, SegmentColumn.ID);
+        ColumnEncoding.Reader numbers = column(channel, segment, SegmentColumn.ORDER_NUMBER);
+        String[] skuCodes = column(channel, segment, SegmentColumn.SKU_CODE).dictionary(rows);
+        ColumnEncoding.Reader prices = column(channel, segment, SegmentColumn.PRICE);
+        ColumnEncoding.Reader quantities = column(channel, segment, SegmentColumn.QUANTITY);
+        String[] statuses = column(channel, segment, SegmentColumn.STATUS).dictionary(rows);
+        ColumnEncoding.Reader times = column(channel, segment, SegmentColumn.ORDER_TIME);
+
+        List<Order> orders = new ArrayList<>(rows);
+        long id = 0;
+        long time = 0;
+        for (int i = 0; i < rows; i++) {
+            id += ids.varLong();
+            time += times.varLong();
+            int scale = (int) prices.varLong();
+            BigDecimal price = scale < 0 ? null : new BigDecimal(new BigInteger(prices.string()), scale);
+            Long quantity = quantities.nullableLong();
+            orders.add(Order.builder()
+                    .id(id)
+                    .orderNumber(numbers.string())
+                    .skuCode(skuCodes[i])
+                    .price(price)
+                    .quantity(quantity == null ? null : quantity.intValue())
+                    .status(statuses[i])
+                    .orderTime(fromEpochMillis(time))
+                    .build());
+        }
+        return orders;
+    }
+
+    private static ColumnEncoding.Reader column(FileChannel channel, SegmentMetadata segment, SegmentColumn column)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(segment.columnLengths()[column.ordinal()]);
+        long position = segment.columnOffsets()[column.ordinal()];
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position + buffer.position());
+            if (n < 0) {
+                throw new IOException("Truncated segment " + segment.file());
+            }
+        }
+        return ColumnEncoding.Reader.inflate(buffer.array());
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.archive;
+
+/**
+ * Columns of an order segment, in file order. Each is stored as its own deflated block so scans
+ * only inflate the columns they read.
+ */
+enum SegmentColumn {
+    ID,
+    ORDER_NUMBER,
+    SKU_CODE,
+    PRICE,
+    QUANTITY,
+    STATUS,
+    ORDER_TIME
+}
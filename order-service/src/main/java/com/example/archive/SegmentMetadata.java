@@ -0,0 +1,79 @@
+package com.example.archive;
+
+import java.nio.file.Path;
+
+/**
+ * Header of an archived segment, kept in memory so queries can skip whole segments: the time
+ * range it covers, its row count and quantity total (range sums that cover the whole segment
+ * never open it), a Bloom filter over order numbers, and where each column block starts.
+ */
+record SegmentMetadata(Path file,
+                       int rowCount,
+                       long minTime,
+                       long maxTime,
+                       long totalQuantity,
+                       long[] orderNumberBloom,
+                       long[] columnOffsets,
+                       int[] columnLengths) {
+
+    private static final int BLOOM_HASHES = 5;
+
+    SegmentMetadata withFile(Path file) {
+        return new SegmentMetadata(file, rowCount, minTime, maxTime, totalQuantity, orderNumberBloom,
+                columnOffsets, columnLengths);
+    }
+
+    boolean overlaps(long fromInclusive) {
+        return maxTime >= fromInclusive;
+    }
+
+    boolean coveredFrom(long fromExclusive) {
+        return minTime > fromExclusive;
+    }
+
+    boolean mightContain(String orderNumber) {
+        return BloomBits.mightContain(orderNumberBloom, orderNumber, BLOOM_HASHES);
+    }
+
+    static long[] bloomFor(Iterable<String> orderNumbers, int rows) {
+        // ~8 bits per entry, about 2% false positives with 5 hashes
+        long[] bits = new long[Math.max(1, (rows * 8 + 63) / 64)];
+        for (String orderNumber : orderNumbers) {
+            BloomBits.add(bits, orderNumber, BLOOM_HASHES);
+        }
+        return bits;
+    }
+
+    private static final class BloomBits {
+
+        static void add(long[] bits, String value, int hashes) {
+            long size = bits.length * 64L;
+            int h1 = value.hashCode();
+            int h2 = mix(h1);
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + (long) i * h2, size);
+                bits[(int) (bit >>> 6)] |= 1L << bit;
+            }
+        }
+
+        static boolean mightContain(long[] bits, String value, int hashes) {
+            long size = bits.length * 64L;
+            int h1 = value.hashCode();
+            int h2 = mix(h1);
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + (long) i * h2, size);
+                if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int mix(int h) {
+            h ^= h >>> 16;
+            h *= 0x85EBCA6B;
+            h ^= h >>> 13;
+            return h | 1;
+        }
+    }
+}
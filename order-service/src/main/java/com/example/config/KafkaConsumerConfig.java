@@ -0,0 +1,22 @@
+package com.example.config;
+
+import com.example.analytics.TopSkuTracker;
+import com.example.dto.OrderEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.Consumer;
+
+@Configuration
+@RequiredArgsConstructor
+public class KafkaConsumerConfig {
+
+    private final TopSkuTracker topSkuTracker;
+
+    // Bound without a group: each instance gets its own consumer and sees every order
+    @Bean
+    public Consumer<OrderEvent> skuSales() {
+        return topSkuTracker::record;
+    }
+}
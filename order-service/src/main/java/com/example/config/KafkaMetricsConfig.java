@@ -0,0 +1,26 @@
+package com.example.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.stream.binder.kafka.config.ClientFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.MicrometerProducerListener;
+import org.springframework.kafka.core.ProducerFactory;
+
+/**
+ * Binds the binder's Kafka producer to Micrometer ({@code kafka.producer.*}: send rate, batch
+ * size, request latency).
+ */
+@Configuration
+public class KafkaMetricsConfig {
+
+    @Bean
+    public ClientFactoryCustomizer kafkaClientMetrics(MeterRegistry meterRegistry) {
+        return new ClientFactoryCustomizer() {
+            @Override
+            public void configure(ProducerFactory<?, ?> producerFactory) {
+                producerFactory.addListener(new MicrometerProducerListener<>(meterRegistry));
+            }
+        };
+    }
+}
@@ -1,9 +1,14 @@
 package com.example.controller;
 
+import com.example.analytics.TopSkuTracker;
+import com.example.analytics.TopSkus;
 import com.example.model.Order;
+import com.example.service.OrderGroupCommitter;
+import com.example.service.OrderHistoryService;
 import com.example.service.OrderService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.time.LocalDateTime;
 import java.util.Map;
@@ -14,12 +19,23 @@ import java.util.Map;
 public class OrderController {
 
     private final OrderService orderService;
-    private final com.example.repository.OrderRepository orderRepository;
+    private final OrderGroupCommitter orderGroupCommitter;
+    private final OrderHistoryService orderHistoryService;
+    private final TopSkuTracker topSkuTracker;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public String placeOrder(@RequestBody Order order) {
-        return orderService.placeOrder(order);
+        return orderGroupCommitter.isEnabled()
+                ? orderGroupCommitter.placeOrder(order)
+                : orderService.placeOrder(order);
+    }
+
+    @GetMapping("/{orderNumber}")
+    public ResponseEntity<Order> getOrder(@PathVariable String orderNumber) {
+        return orderHistoryService.findByOrderNumber(orderNumber)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/analytics/sales")
@@ -30,6 +46,12 @@ public class OrderController {
             case "year" -> LocalDateTime.now().minusYears(1);
             default -> LocalDateTime.now().minusDays(1);
         };
-        return Map.of("count", orderRepository.sumQuantitySince(time));
+        return Map.of("count", orderHistoryService.sumQuantitySince(time));
+    }
+
+    @GetMapping("/analytics/top-skus")
+    public TopSkus getTopSkus(@RequestParam(defaultValue = TopSkuTracker.HOUR) String window,
+                              @RequestParam(defaultValue = "10") int limit) {
+        return topSkuTracker.top(window, Math.max(1, Math.min(limit, 100)));
     }
 }
@@ -1,7 +1,9 @@
 package com.example.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -10,6 +12,26 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 @Slf4j
 public class GlobalExceptionHandler {
 
+    @ExceptionHandler(OrderBacklogException.class)
+    public ResponseEntity<String> handleOrderBacklog(OrderBacklogException ex) {
+        log.warn("Rejected order: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ex.getMessage());
+    }
+
+    /**
+     * 202 rather than 503: the order is queued, and a client retrying a rejected POST would
+     * place it twice. The Location points at the order so the client can check on it.
+     */
+    @ExceptionHandler(OrderCommitPendingException.class)
+    public ResponseEntity<String> handleOrderCommitPending(OrderCommitPendingException ex) {
+        log.warn("Order accepted but not yet committed: {}", ex.getOrderNumber());
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(HttpHeaders.LOCATION, "/api/orders/" + ex.getOrderNumber())
+                .body("Order Accepted. Order Number: " + ex.getOrderNumber());
+    }
+
     @ExceptionHandler(Exception.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public String handleException(Exception ex) {
@@ -0,0 +1,8 @@
+package com.example.exception;
+
+public class OrderBacklogException extends RuntimeException {
+
+    public OrderBacklogException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.exception;
+
+import lombok.Getter;
+
+/**
+ * The order was queued but not confirmed within the response timeout; it will most likely
+ * still commit, so callers must not simply resubmit it.
+ */
+@Getter
+public class OrderCommitPendingException extends RuntimeException {
+
+    private final String orderNumber;
+
+    public OrderCommitPendingException(String orderNumber) {
+        super("Order " + orderNumber + " is still being committed");
+        this.orderNumber = orderNumber;
+    }
+}
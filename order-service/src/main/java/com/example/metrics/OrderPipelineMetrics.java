@@ -0,0 +1,57 @@
+package com.example.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Producer-side stage timers for order events: how long handing an event to the binder takes,
+ * and the size and duration of group commits. The consumers time the rest of the pipeline from
+ * the timestamps stamped on the event.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderPipelineMetrics {
+
+    public static final String PUBLISH = "order.pipeline.publish";
+    public static final String GROUP_COMMIT = "order.group.commit";
+
+    private static final Duration MIN_EXPECTED = Duration.ofMillis(1);
+    private static final Duration MAX_EXPECTED = Duration.ofSeconds(30);
+
+    private final MeterRegistry meterRegistry;
+
+    public void published(long nanos, boolean sent) {
+        histogram(PUBLISH, "result", sent ? "sent" : "failed").record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void groupCommitted(int batchSize, long nanos) {
+        histogram(GROUP_COMMIT + ".duration").record(nanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder(GROUP_COMMIT + ".batch.size")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry)
+                .record(batchSize);
+    }
+
+    public void groupCommitQueue(Collection<?> queue) {
+        Gauge.builder(GROUP_COMMIT + ".queued", queue, Collection::size)
+                .register(meterRegistry);
+    }
+
+    private Timer histogram(String name, String... tags) {
+        return Timer.builder(name)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .minimumExpectedValue(MIN_EXPECTED)
+                .maximumExpectedValue(MAX_EXPECTED)
+                .register(meterRegistry);
+    }
+}
@@ -7,7 +7,11 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_order_number", columnList = "orderNumber"),
+        // Range scans for analytics and for the archiver's oldest-first batches
+        @Index(name = "idx_orders_order_time", columnList = "orderTime")
+})
 @Getter
 @Setter
 @NoArgsConstructor
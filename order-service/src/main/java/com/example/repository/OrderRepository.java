@@ -4,9 +4,19 @@ import com.example.model.Order;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
+    Optional<Order> findByOrderNumber(String orderNumber);
+
+    @Transactional(readOnly = true)
     @Query("SELECT COALESCE(SUM(o.quantity), 0) FROM Order o WHERE o.orderTime > :time")
     long sumQuantitySince(@Param("time") LocalDateTime time);
+
+    @Query("SELECT o.id FROM Order o WHERE o.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
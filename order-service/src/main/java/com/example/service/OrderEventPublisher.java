@@ -0,0 +1,51 @@
+package com.example.service;
+
+import com.example.dto.OrderEvent;
+import com.example.metrics.OrderPipelineMetrics;
+import com.example.model.Order;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderEventPublisher {
+
+    private final StreamBridge streamBridge;
+    private final OrderPipelineMetrics pipelineMetrics;
+
+    /**
+     * Publishes the order-created event; the binder sends asynchronously, so back-to-back calls
+     * end up in the same producer batch.
+     */
+    public boolean publish(Order order, long createdAt) {
+        OrderEvent orderEvent = new OrderEvent(
+                order.getOrderNumber(),
+                order.getSkuCode(),
+                order.getQuantity(),
+                order.getStatus(),
+                createdAt,
+                null
+        );
+
+        long publishStart = System.nanoTime();
+        orderEvent.setPublishedAt(System.currentTimeMillis());
+        // Keyed by SKU so all of a SKU's events land on one partition, in order
+        boolean sent = streamBridge.send("orderCreated-out-0", MessageBuilder.withPayload(orderEvent)
+                .setHeader(KafkaHeaders.KEY, order.getSkuCode().getBytes(StandardCharsets.UTF_8))
+                .build());
+        pipelineMetrics.published(System.nanoTime() - publishStart, sent);
+        if (sent) {
+            log.info("Order event sent to Kafka for order: {}", order.getOrderNumber());
+        } else {
+            log.error("Failed to send order event to Kafka");
+        }
+        return sent;
+    }
+}
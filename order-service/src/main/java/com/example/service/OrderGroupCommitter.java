@@ -0,0 +1,206 @@
+package com.example.service;
+
+import com.example.exception.OrderBacklogException;
+import com.example.exception.OrderCommitPendingException;
+import com.example.metrics.OrderPipelineMetrics;
+import com.example.model.Order;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Group commit for order placement. Concurrent callers queue their order; a single committer
+ * thread collects up to {@code max-batch-size} orders or waits at most {@code max-wait} after the
+ * first one, inserts the whole batch in one transaction (one commit, one fsync), publishes the
+ * batch's events back to back, and then releases every caller. If a batch fails, its orders are
+ * retried one by one so a single bad order only fails its own caller.
+ */
+@Service
+@Slf4j
+public class OrderGroupCommitter {
+
+    private static final String INSERT_SQL = "INSERT INTO orders (order_number, sku_code, price, quantity, status, order_time) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderEventPublisher orderEventPublisher;
+    private final OrderPipelineMetrics pipelineMetrics;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final Duration responseTimeout;
+    private final BlockingQueue<PendingOrder> queue;
+
+    private volatile boolean running;
+    private Thread committer;
+
+    public OrderGroupCommitter(JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               OrderEventPublisher orderEventPublisher,
+                               OrderPipelineMetrics pipelineMetrics,
+                               @Value("${order.group-commit.enabled:false}") boolean enabled,
+                               @Value("${order.group-commit.max-batch-size:64}") int maxBatchSize,
+                               @Value("${order.group-commit.max-wait:500us}") Duration maxWait,
+                               @Value("${order.group-commit.queue-capacity:10000}") int queueCapacity,
+                               @Value("${order.group-commit.response-timeout:10s}") Duration responseTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.orderEventPublisher = orderEventPublisher;
+        this.pipelineMetrics = pipelineMetrics;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.responseTimeout = responseTimeout;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String placeOrder(Order orderRequest) {
+        log.info("Queueing order for SKU: {}", orderRequest.getSkuCode());
+        PendingOrder pending = new PendingOrder(OrderService.newPendingOrder(orderRequest),
+                System.currentTimeMillis(), new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            throw new OrderBacklogException("Order queue is full, try again shortly");
+        }
+
+        try {
+            pending.committed().get(responseTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Queued, so it will probably commit: report it accepted rather than invite a resubmit
+            throw new OrderCommitPendingException(pending.order().getOrderNumber());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OrderCommitPendingException(pending.order().getOrderNumber());
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+        }
+        return OrderService.confirmation(pending.order());
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        pipelineMetrics.groupCommitQueue(queue);
+        running = true;
+        committer = new Thread(this::run, "order-group-commit");
+        committer.setDaemon(true);
+        committer.start();
+        log.info("Order group commit enabled: up to {} orders or {}us per batch",
+                maxBatchSize, TimeUnit.NANOSECONDS.toMicros(maxWaitNanos));
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (committer == null) {
+            return;
+        }
+        // Stop accepting, let the committer finish what's queued, then fail any stragglers
+        running = false;
+        committer.interrupt();
+        committer.join(TimeUnit.SECONDS.toMillis(10));
+        List<PendingOrder> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.forEach(p -> p.committed().completeExceptionally(
+                new OrderBacklogException("Order service is shutting down")));
+    }
+
+    private void run() {
+        List<PendingOrder> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                // Shutdown: commit whatever was already collected plus what's queued
+                queue.drainTo(batch, maxBatchSize - batch.size());
+                if (batch.isEmpty()) {
+                    continue;
+                }
+            }
+            commit(batch);
+            batch.clear();
+        }
+    }
+
+    private void collect(List<PendingOrder> batch) throws InterruptedException {
+        PendingOrder first = running ? queue.take() : queue.poll();
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        queue.drainTo(batch, maxBatchSize - batch.size());
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while (batch.size() < maxBatchSize && running) {
+            long remaining = deadline - System.nanoTime();
+            PendingOrder next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+            queue.drainTo(batch, maxBatchSize - batch.size());
+        }
+    }
+
+    private void commit(List<PendingOrder> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<PendingOrder> committed = batch;
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(batch));
+        } catch (RuntimeException e) {
+            log.warn("Group commit of {} orders failed, committing individually", batch.size(), e);
+            committed = new ArrayList<>(batch.size());
+            for (PendingOrder pending : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(List.of(pending)));
+                    committed.add(pending);
+                } catch (RuntimeException single) {
+                    pending.committed().completeExceptionally(single);
+                }
+            }
+        }
+        pipelineMetrics.groupCommitted(batch.size(), System.nanoTime() - start);
+
+        for (PendingOrder pending : committed) {
+            orderEventPublisher.publish(pending.order(), pending.createdAt());
+        }
+        committed.forEach(pending -> pending.committed().complete(null));
+    }
+
+    private void insert(List<PendingOrder> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, pending) -> {
+            Order order = pending.order();
+            ps.setString(1, order.getOrderNumber());
+            ps.setString(2, order.getSkuCode());
+            ps.setBigDecimal(3, order.getPrice());
+            ps.setObject(4, order.getQuantity());
+            ps.setString(5, order.getStatus());
+            ps.setTimestamp(6, Timestamp.valueOf(order.getOrderTime()));
+        });
+    }
+
+    private record PendingOrder(Order order, long createdAt, CompletableFuture<Void> committed) {
+    }
+}
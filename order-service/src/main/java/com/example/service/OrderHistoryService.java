@@ -0,0 +1,53 @@
+package com.example.service;
+
+import com.example.archive.OrderArchive;
+import com.example.model.Order;
+import com.example.repository.OrderRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Order reads that span the hot table and the archive, so callers don't need to know where an
+ * order currently lives.
+ */
+@Service
+public class OrderHistoryService {
+
+    private final OrderRepository orderRepository;
+    private final OrderArchive orderArchive;
+    private final TransactionTemplate readOnly;
+
+    public OrderHistoryService(OrderRepository orderRepository, OrderArchive orderArchive,
+                               PlatformTransactionManager transactionManager) {
+        this.orderRepository = orderRepository;
+        this.orderArchive = orderArchive;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+    }
+
+    public Optional<Order> findByOrderNumber(String orderNumber) {
+        Optional<Order> order = readOnly.execute(status -> orderRepository.findByOrderNumber(orderNumber));
+        if (order.isEmpty() && orderArchive.isEnabled()) {
+            order = orderArchive.findByOrderNumber(orderNumber);
+        }
+        // A replica may not have caught up with an order placed moments ago; outside a
+        // read-only transaction this goes to the primary
+        return order.isPresent() ? order : orderRepository.findByOrderNumber(orderNumber);
+    }
+
+    /**
+     * Repeatable read: the hot-table sum and the archive's check of which segments are still in
+     * the hot table see one snapshot, so an archiver run in between doesn't skew the total.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public long sumQuantitySince(LocalDateTime time) {
+        long hot = orderRepository.sumQuantitySince(time);
+        return orderArchive.isEnabled() ? hot + orderArchive.sumQuantitySince(time, orderRepository::findExistingIds) : hot;
+    }
+}
@@ -1,11 +1,9 @@
 package com.example.service;
 
-import com.example.dto.OrderEvent;
 import com.example.model.Order;
 import com.example.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cloud.stream.function.StreamBridge;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,13 +16,26 @@ import java.util.UUID;
 public class OrderService {
 
     private final OrderRepository orderRepository;
-    private final StreamBridge streamBridge;
+    private final OrderEventPublisher orderEventPublisher;
 
     @Transactional
     public String placeOrder(Order orderRequest) {
         log.info("Placing order for SKU: {}", orderRequest.getSkuCode());
-        
-        Order order = Order.builder()
+        long createdAt = System.currentTimeMillis();
+
+        Order order = newPendingOrder(orderRequest);
+
+        orderRepository.save(order);
+        log.info("Order saved with ID: {}", order.getId());
+
+        // Publish event to Kafka asynchronously
+        orderEventPublisher.publish(order, createdAt);
+
+        return confirmation(order);
+    }
+
+    static Order newPendingOrder(Order orderRequest) {
+        return Order.builder()
                 .orderNumber(UUID.randomUUID().toString())
                 .skuCode(orderRequest.getSkuCode())
                 .price(orderRequest.getPrice())
@@ -32,25 +43,9 @@ public class OrderService {
                 .status("PENDING")
                 .orderTime(LocalDateTime.now())
                 .build();
+    }
 
-        orderRepository.save(order);
-        log.info("Order saved with ID: {}", order.getId());
-
-        // Publish event to Kafka asynchronously
-        OrderEvent orderEvent = new OrderEvent(
-                order.getOrderNumber(),
-                order.getSkuCode(),
-                order.getQuantity(),
-                order.getStatus()
-        );
-        
-        boolean sent = streamBridge.send("orderCreated-out-0", orderEvent);
-        if (sent) {
-            log.info("Order event sent to Kafka for order: {}", order.getOrderNumber());
-        } else {
-            log.error("Failed to send order event to Kafka");
-        }
-
+    static String confirmation(Order order) {
         return "Order Placed Successfully. Order Number: " + order.getOrderNumber();
     }
 }
@@ -1,5 +1,6 @@
 package com.example.config;
 
+import com.example.metrics.OrderPipelineMetrics;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
@@ -10,12 +11,20 @@ import java.util.concurrent.Executor;
 public class AsyncConfig {
 
     @Bean(name = "taskExecutor")
-    public Executor taskExecutor() {
+    public Executor taskExecutor(OrderPipelineMetrics pipelineMetrics) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(5);
         executor.setMaxPoolSize(10);
         executor.setQueueCapacity(25);
         executor.setThreadNamePrefix("PaymentAsync-");
+        // Time each task spends queued behind the pool before it starts
+        executor.setTaskDecorator(task -> {
+            long queuedAt = System.nanoTime();
+            return () -> {
+                pipelineMetrics.queueWait(System.nanoTime() - queuedAt);
+                task.run();
+            };
+        });
         executor.initialize();
         return executor;
     }
@@ -0,0 +1,50 @@
+package com.example.config;
+
+import com.example.service.PaymentEventDispatcher;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.cloud.stream.binder.kafka.KafkaBindingRebalanceListener;
+import org.springframework.cloud.stream.config.ListenerContainerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+
+import java.util.Collection;
+
+/**
+ * Consumers acknowledge order events only after they are processed (ack-mode MANUAL), possibly
+ * out of order across the async pool.
+ */
+@Configuration
+@Slf4j
+public class PaymentRebalanceConfig {
+
+    /**
+     * Commits each partition only up to its lowest unacknowledged offset.
+     */
+    @Bean
+    public ListenerContainerCustomizer<AbstractMessageListenerContainer<?, ?>> asyncAcksCustomizer() {
+        return (container, destination, group) -> container.getContainerProperties().setAsyncAcks(true);
+    }
+
+    /**
+     * Holds the consumer inside the revocation callback until the pool has finished and
+     * acknowledged the events it was given; those acks are then committed before the partitions
+     * move. The pool is shared by every binding, so this waits for all of them.
+     */
+    @Bean
+    public KafkaBindingRebalanceListener paymentRebalanceListener(PaymentEventDispatcher dispatcher) {
+        return new KafkaBindingRebalanceListener() {
+            @Override
+            public void onPartitionsRevokedBeforeCommit(String bindingName, Consumer<?, ?> consumer,
+                                                        Collection<TopicPartition> partitions) {
+                if (partitions.isEmpty()) {
+                    return;
+                }
+                log.info("Draining in-flight payments for revoked {} partitions {}", bindingName, partitions);
+                dispatcher.drain();
+            }
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.controller;
+
+import com.example.service.DeadLetterReplayer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Operator endpoints for this service's order-event dead-letter topic. Not routed by the gateway.
+ */
+@RestController
+@RequestMapping("/api/admin/dead-letters")
+@RequiredArgsConstructor
+@Slf4j
+public class DeadLetterController {
+
+    // Bounds what one request holds in memory; larger backlogs take several calls
+    private static final int MAX_REPLAY = 1000;
+
+    private final DeadLetterReplayer deadLetterReplayer;
+
+    @GetMapping
+    public Map<String, Long> pending() {
+        return Map.of("pending", deadLetterReplayer.pending());
+    }
+
+    @PostMapping("/replay")
+    public ResponseEntity<Map<String, Object>> replay(@RequestParam(defaultValue = "100") int max) {
+        if (max < 1 || max > MAX_REPLAY) {
+            return ResponseEntity.badRequest().body(Map.of("error", "max must be between 1 and " + MAX_REPLAY));
+        }
+        log.info("Replaying up to {} dead-lettered order events", max);
+        return ResponseEntity.ok(Map.of("replayed", deadLetterReplayer.replay(max)));
+    }
+}
@@ -16,9 +16,7 @@ public class PaymentController {
 
     @GetMapping("/{orderNumber}")
     public List<Payment> getPaymentStatus(@PathVariable String orderNumber) {
-        // Returns list since multiple payment attempts might exist, though usually one
-        return paymentRepository.findAll().stream()
-                .filter(p -> p.getOrderNumber().equals(orderNumber))
-                .toList();
+        // Returns a list for compatibility; the unique index allows at most one
+        return paymentRepository.findByOrderNumber(orderNumber);
     }
 }
@@ -0,0 +1,115 @@
+package com.example.metrics;
+
+import com.example.dto.OrderEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stage timers for an order event on its way through this consumer: Kafka transit, the
+ * {@code @Async} queue, the payment write, and the order's total age when processing ends, plus
+ * retry routing per tier, duplicate detection and bulk write batches. Per-partition consumer lag
+ * comes from the Kafka client metrics (see KafkaMetricsConfig).
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderPipelineMetrics {
+
+    public static final String TRANSIT = "order.pipeline.transit";
+    public static final String QUEUE_WAIT = "order.pipeline.queue.wait";
+    public static final String DB_WRITE = "order.pipeline.db.write";
+    public static final String AGE = "order.pipeline.age";
+    public static final String RETRY_ROUTED = "order.retry.routed";
+    public static final String RETRY_RECOVERED = "order.retry.recovered";
+    public static final String DEDUPE = "payment.dedupe";
+    public static final String BULK_WRITE = "payment.bulk.write";
+
+    private static final Duration MIN_EXPECTED = Duration.ofMillis(1);
+    private static final Duration MAX_EXPECTED = Duration.ofMinutes(1);
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Publish to receive: broker time plus however far behind this consumer group is.
+     */
+    public void received(OrderEvent event) {
+        recordSince(TRANSIT, event.getPublishedAt());
+    }
+
+    public void queueWait(long nanos) {
+        histogram(QUEUE_WAIT).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void dbWrite(long nanos) {
+        histogram(DB_WRITE).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * How a delivery was found new or duplicate: {@code filter-new} (no read), {@code recent-hit},
+     * {@code db-hit}/{@code db-miss} (Bloom false positive or old order), {@code in-flight}.
+     */
+    public void dedupe(String path) {
+        Counter.builder(DEDUPE)
+                .tag("path", path)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void bulkWrite(int batchSize, long nanos) {
+        histogram(BULK_WRITE + ".duration").record(nanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder(BULK_WRITE + ".batch.size")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry)
+                .record(batchSize);
+    }
+
+    /**
+     * Order creation to the end of processing, tagged with how processing ended.
+     */
+    public void completed(OrderEvent event, String outcome) {
+        recordSince(AGE, event.getCreatedAt(), "outcome", outcome);
+    }
+
+    /**
+     * An event sent to a retry tier ({@code retry-1..3}) or to the dead-letter topic ({@code dlt}).
+     */
+    public void retryRouted(String tier, boolean sent) {
+        Counter.builder(RETRY_ROUTED)
+                .tags("tier", tier, "result", sent ? "sent" : "lost")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * An event that succeeded on a retry tier.
+     */
+    public void retryRecovered(String tier) {
+        Counter.builder(RETRY_RECOVERED)
+                .tag("tier", tier)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private void recordSince(String name, Long epochMillis, String... tags) {
+        // Events from producers that predate the timestamps carry none
+        if (epochMillis != null) {
+            histogram(name, tags).record(Math.max(0, System.currentTimeMillis() - epochMillis), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private Timer histogram(String name, String... tags) {
+        return Timer.builder(name)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .minimumExpectedValue(MIN_EXPECTED)
+                .maximumExpectedValue(MAX_EXPECTED)
+                .register(meterRegistry);
+    }
+}
@@ -16,6 +16,7 @@ import java.time.LocalDateTime;
 public class Payment {
     @Id
     private String id;
+    // Unique: see PaymentWriter, which creates the index and upserts by it
     private String orderNumber;
     private BigDecimal amount;
     private String paymentStatus;
@@ -3,5 +3,11 @@ package com.example.repository;
 import com.example.model.Payment;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.util.List;
+
 public interface PaymentRepository extends MongoRepository<Payment, String> {
+
+    List<Payment> findByOrderNumber(String orderNumber);
+
+    boolean existsByOrderNumber(String orderNumber);
 }
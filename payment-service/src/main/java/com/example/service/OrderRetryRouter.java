@@ -0,0 +1,126 @@
+package com.example.service;
+
+import com.example.dto.OrderEvent;
+import com.example.metrics.OrderPipelineMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Non-blocking retries for order events this service failed to process. A failed event is
+ * republished to the next retry tier ({@code <topic-prefix>.retry-1..3}, each with a longer delay)
+ * and, once the tiers are exhausted, to {@code <topic-prefix>.dlt}. The main partition moves on
+ * immediately; each tier's consumer waits out the delay on its own topic.
+ * <p>
+ * This class, {@link DeadLetterReplayer} and {@code DeadLetterController} are kept byte-identical
+ * in shopping-service and payment-service, so a fix to one is copied verbatim to the other. They
+ * are not a shared module because they depend on each service's own {@code OrderEvent} and
+ * {@code OrderPipelineMetrics}.
+ */
+@Service
+@Slf4j
+public class OrderRetryRouter {
+
+    public static final int TIERS = 3;
+
+    static final String ATTEMPT_HEADER = "x-retry-attempt";
+    static final String DUE_HEADER = "x-retry-due";
+    static final String REASON_HEADER = "x-retry-reason";
+
+    private final StreamBridge streamBridge;
+    private final OrderPipelineMetrics pipelineMetrics;
+    private final String topicPrefix;
+    private final List<Duration> delays;
+
+    public OrderRetryRouter(StreamBridge streamBridge,
+                            OrderPipelineMetrics pipelineMetrics,
+                            @Value("${order-retry.topic-prefix}") String topicPrefix,
+                            @Value("${order-retry.delays:5s,30s,2m}") List<Duration> delays) {
+        if (delays.size() != TIERS) {
+            throw new IllegalStateException("order-retry.delays needs exactly " + TIERS + " entries");
+        }
+        this.streamBridge = streamBridge;
+        this.pipelineMetrics = pipelineMetrics;
+        this.topicPrefix = topicPrefix;
+        this.delays = delays;
+    }
+
+    /**
+     * Schedules {@code event} for another attempt after failed attempt number {@code attempt}
+     * (0 for the first delivery).
+     */
+    public void retry(OrderEvent event, int attempt, String reason) {
+        int next = attempt + 1;
+        String tier = next <= TIERS ? "retry-" + next : "dlt";
+        long due = next <= TIERS ? System.currentTimeMillis() + delays.get(next - 1).toMillis() : 0;
+        send(tier, MessageBuilder.withPayload(event), next, due, reason,
+                event.getSkuCode().getBytes(StandardCharsets.UTF_8));
+        if (next > TIERS) {
+            log.error("Order {} (SKU {}) dead-lettered after {} attempts: {}",
+                    event.getOrderNumber(), event.getSkuCode(), attempt + 1, reason);
+        } else {
+            log.warn("Order {} (SKU {}) failed ({}), retry {} in {}",
+                    event.getOrderNumber(), event.getSkuCode(), reason, next, delays.get(next - 1));
+        }
+    }
+
+    /**
+     * Sends a dead-lettered record (raw JSON payload and key) back to the first retry tier, due now.
+     */
+    public boolean replay(byte[] payload, byte[] key) {
+        return send("retry-1", MessageBuilder.withPayload(payload)
+                        .setHeader(MessageHeaders.CONTENT_TYPE, "application/json"),
+                1, System.currentTimeMillis(), "replayed", key);
+    }
+
+    public void recovered(int attempt) {
+        pipelineMetrics.retryRecovered("retry-" + attempt);
+    }
+
+    /**
+     * Blocks the calling tier consumer until the message is due, and returns its attempt number.
+     */
+    public int awaitDue(Message<?> message) throws InterruptedException {
+        long wait = longHeader(message, DUE_HEADER, 0) - System.currentTimeMillis();
+        if (wait > 0) {
+            Thread.sleep(wait);
+        }
+        return (int) longHeader(message, ATTEMPT_HEADER, 1);
+    }
+
+    public String deadLetterTopic() {
+        return topicPrefix + ".dlt";
+    }
+
+    private <T> boolean send(String tier, MessageBuilder<T> builder, int attempt, long due, String reason, byte[] key) {
+        Message<T> message = builder
+                .setHeader(KafkaHeaders.KEY, key)
+                .setHeader(ATTEMPT_HEADER, String.valueOf(attempt))
+                .setHeader(DUE_HEADER, String.valueOf(due))
+                .setHeader(REASON_HEADER, reason)
+                .build();
+        boolean sent = streamBridge.send(topicPrefix + "." + tier, message);
+        pipelineMetrics.retryRouted(tier, sent);
+        if (!sent) {
+            log.error("Could not route order event to {}.{}; event lost", topicPrefix, tier);
+        }
+        return sent;
+    }
+
+    private static long longHeader(Message<?> message, String name, long defaultValue) {
+        Object value = message.getHeaders().get(name);
+        if (value instanceof byte[] bytes) {
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return value == null ? defaultValue : Long.parseLong(value.toString());
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.service;
+
+import com.example.metrics.OrderPipelineMetrics;
+import com.example.model.Payment;
+import com.example.repository.PaymentRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Decides whether an order still needs paying without a Mongo read in the common case. A Bloom
+ * filter of paid order numbers answers "definitely new" for first deliveries; only a "maybe"
+ * falls through to an exact cache of recently paid orders and, failing that, to the database.
+ * Orders being processed right now are claimed, so a concurrent redelivery is skipped too.
+ * The unique index and upserts in {@link PaymentWriter} remain the backstop.
+ */
+@Component
+@Slf4j
+public class PaymentDeduplicator {
+
+    private final PaymentRepository paymentRepository;
+    private final MongoTemplate mongoTemplate;
+    private final OrderPipelineMetrics pipelineMetrics;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final Duration preloadWindow;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final Map<String, Boolean> recent;
+
+    // Two generations: once the current filter holds expected-insertions keys it becomes the
+    // previous one, so the false positive rate stays bounded however long the service runs
+    private volatile BloomFilter current;
+    private volatile BloomFilter previous;
+
+    public PaymentDeduplicator(PaymentRepository paymentRepository,
+                               MongoTemplate mongoTemplate,
+                               OrderPipelineMetrics pipelineMetrics,
+                               @Value("${payment.dedupe.expected-insertions:1000000}") long expectedInsertions,
+                               @Value("${payment.dedupe.false-positive-rate:0.01}") double falsePositiveRate,
+                               @Value("${payment.dedupe.recent-keys:100000}") int recentKeys,
+                               @Value("${payment.dedupe.preload-window:24h}") Duration preloadWindow) {
+        this.paymentRepository = paymentRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.pipelineMetrics = pipelineMetrics;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.preloadWindow = preloadWindow;
+        this.recent = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > recentKeys;
+            }
+        };
+        this.current = new BloomFilter(expectedInsertions, falsePositiveRate);
+        this.previous = new BloomFilter(1, falsePositiveRate);
+    }
+
+    /**
+     * Seeds the filter with recently paid orders, the ones a rebalance could redeliver.
+     */
+    @PostConstruct
+    void preload() {
+        Query query = Query.query(Criteria.where("transactionTime").gte(LocalDateTime.now().minus(preloadWindow)));
+        query.fields().include("orderNumber");
+        long loaded;
+        try (Stream<Payment> payments = mongoTemplate.stream(query, Payment.class)) {
+            loaded = payments.map(Payment::getOrderNumber).peek(this::remember).count();
+        }
+        log.info("Payment dedupe filter seeded with {} orders paid in the last {}", loaded, preloadWindow);
+    }
+
+    /**
+     * Claims {@code orderNumber} for processing; false if it was already paid or is being paid
+     * right now. A successful claim must be followed by {@link #release}.
+     */
+    public boolean claim(String orderNumber) {
+        if (!inFlight.add(orderNumber)) {
+            pipelineMetrics.dedupe("in-flight");
+            return false;
+        }
+        if (!current.mightContain(orderNumber) && !previous.mightContain(orderNumber)) {
+            pipelineMetrics.dedupe("filter-new");
+            return true;
+        }
+        boolean paid;
+        synchronized (recent) {
+            paid = recent.containsKey(orderNumber);
+        }
+        if (paid) {
+            pipelineMetrics.dedupe("recent-hit");
+        } else {
+            paid = paymentRepository.existsByOrderNumber(orderNumber);
+            pipelineMetrics.dedupe(paid ? "db-hit" : "db-miss");
+        }
+        if (paid) {
+            inFlight.remove(orderNumber);
+        }
+        return !paid;
+    }
+
+    /**
+     * Records that the payment for {@code orderNumber} is stored.
+     */
+    public void paid(String orderNumber) {
+        remember(orderNumber);
+    }
+
+    public void release(String orderNumber) {
+        inFlight.remove(orderNumber);
+    }
+
+    private void remember(String orderNumber) {
+        BloomFilter filter = current;
+        if (filter.insertions() >= expectedInsertions) {
+            synchronized (this) {
+                if (current == filter) {
+                    previous = filter;
+                    current = new BloomFilter(expectedInsertions, falsePositiveRate);
+                }
+                filter = current;
+            }
+        }
+        filter.put(orderNumber);
+        synchronized (recent) {
+            recent.put(orderNumber, Boolean.TRUE);
+        }
+    }
+}
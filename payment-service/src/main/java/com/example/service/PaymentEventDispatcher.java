@@ -0,0 +1,101 @@
+package com.example.service;
+
+import com.example.dto.OrderEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Hands order events to the async payment pool and routes failures, including a saturated pool,
+ * to the retry tiers instead of dropping them.
+ * <p>
+ * Offsets are acknowledged only once a payment has been written or handed to the retry topics, so
+ * queued events are redelivered after a crash. When partitions are revoked the pool's in-flight
+ * events are drained first (see {@link #drain}).
+ */
+@Service
+@Slf4j
+public class PaymentEventDispatcher {
+
+    private final PaymentService paymentService;
+    private final OrderRetryRouter orderRetryRouter;
+    private final Duration drainTimeout;
+    private final Set<CompletableFuture<Void>> inFlight = ConcurrentHashMap.newKeySet();
+
+    public PaymentEventDispatcher(PaymentService paymentService,
+                                  OrderRetryRouter orderRetryRouter,
+                                  @Value("${payment.consumer.drain-timeout:PT30S}") Duration drainTimeout) {
+        this.paymentService = paymentService;
+        this.orderRetryRouter = orderRetryRouter;
+        this.drainTimeout = drainTimeout;
+    }
+
+    /**
+     * @param attempt 0 for the first delivery, otherwise the retry tier it came from
+     * @param ack     acknowledged once the event is handled; null when the binding auto-commits
+     */
+    public void dispatch(OrderEvent event, int attempt, Acknowledgment ack) {
+        CompletableFuture<Void> handled;
+        try {
+            // Calling service through proxy to ensure @Async works
+            handled = paymentService.processPaymentAsync(event)
+                    .whenComplete((ignored, error) -> onResult(event, attempt, error, ack));
+        } catch (TaskRejectedException e) {
+            onResult(event, attempt, e, ack);
+            return;
+        }
+        inFlight.add(handled);
+        handled.whenComplete((ignored, error) -> inFlight.remove(handled));
+    }
+
+    /**
+     * Blocks until every event already handed to the pool has been handled, so their offsets are
+     * acknowledged before the partitions are handed to another instance.
+     */
+    public void drain() {
+        CompletableFuture<?>[] pending = inFlight.toArray(CompletableFuture[]::new);
+        if (pending.length == 0) {
+            return;
+        }
+        try {
+            CompletableFuture.allOf(pending).get(drainTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            // Failed payments were routed to the retry tiers and acknowledged like the rest
+        } catch (TimeoutException e) {
+            log.warn("Payments not drained within {}; their unacknowledged events will be redelivered", drainTimeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void onResult(OrderEvent event, int attempt, Throwable error, Acknowledgment ack) {
+        try {
+            route(event, attempt, error);
+        } finally {
+            if (ack != null) {
+                ack.acknowledge();
+            }
+        }
+    }
+
+    private void route(OrderEvent event, int attempt, Throwable error) {
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            log.error("Payment failed for order {}", event.getOrderNumber(), cause);
+            orderRetryRouter.retry(event, attempt, cause.toString());
+        } else if (attempt > 0) {
+            orderRetryRouter.recovered(attempt);
+        }
+    }
+}
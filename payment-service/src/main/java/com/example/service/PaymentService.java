@@ -1,27 +1,43 @@
 package com.example.service;
 
 import com.example.dto.OrderEvent;
+import com.example.metrics.OrderPipelineMetrics;
 import com.example.model.Payment;
-import com.example.repository.PaymentRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.annotation.Bean;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.function.Consumer;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PaymentService {
 
-    private final PaymentRepository paymentRepository;
+    private final PaymentDeduplicator paymentDeduplicator;
+    private final PaymentWriter paymentWriter;
+    private final OrderPipelineMetrics pipelineMetrics;
 
     @Async
-    public void processPaymentAsync(OrderEvent event) {
+    public CompletableFuture<Void> processPaymentAsync(OrderEvent event) {
+        String orderNumber = event.getOrderNumber();
+        if (!paymentDeduplicator.claim(orderNumber)) {
+            log.info("Skipping redelivered order event, order {} is already paid", orderNumber);
+            pipelineMetrics.completed(event, "duplicate");
+            return CompletableFuture.completedFuture(null);
+        }
+        try {
+            pay(event);
+        } finally {
+            paymentDeduplicator.release(orderNumber);
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private void pay(OrderEvent event) {
         log.info("Processing payment asynchronously for order {} on thread: {}",
                 event.getOrderNumber(), Thread.currentThread().getName());
 
@@ -39,7 +55,15 @@ public class PaymentService {
                 .transactionTime(LocalDateTime.now())
                 .build();
 
-        paymentRepository.save(payment);
-        log.info("Payment saved for order: {}", event.getOrderNumber());
+        long writeStart = System.nanoTime();
+        boolean stored = paymentWriter.write(payment).join();
+        pipelineMetrics.dbWrite(System.nanoTime() - writeStart);
+        paymentDeduplicator.paid(event.getOrderNumber());
+        pipelineMetrics.completed(event, stored ? "paid" : "duplicate");
+        if (stored) {
+            log.info("Payment saved for order: {}", event.getOrderNumber());
+        } else {
+            log.info("Payment for order {} already existed, left unchanged", event.getOrderNumber());
+        }
     }
 }
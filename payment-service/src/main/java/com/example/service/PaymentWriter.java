@@ -0,0 +1,189 @@
+package com.example.service;
+
+import com.example.metrics.OrderPipelineMetrics;
+import com.example.model.Payment;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes payments in unordered bulk upserts keyed by the unique {@code orderNumber} index.
+ * Concurrent payments queue here; a single writer thread sends up to {@code max-batch-size} of
+ * them, or whatever arrived within {@code max-wait} of the first, in one round trip. Each upsert
+ * only sets fields on insert, so a payment that already exists is left as it is and reported as
+ * a duplicate instead of failing the batch.
+ */
+@Service
+@Slf4j
+public class PaymentWriter {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final OrderPipelineMetrics pipelineMetrics;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final BlockingQueue<PendingWrite> queue;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public PaymentWriter(MongoTemplate mongoTemplate,
+                         OrderPipelineMetrics pipelineMetrics,
+                         @Value("${payment.bulk-write.max-batch-size:256}") int maxBatchSize,
+                         @Value("${payment.bulk-write.max-wait:2ms}") Duration maxWait,
+                         @Value("${payment.bulk-write.queue-capacity:10000}") int queueCapacity) {
+        this.mongoTemplate = mongoTemplate;
+        this.pipelineMetrics = pipelineMetrics;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * Queues {@code payment}; the future completes with true once it is stored, or false if a
+     * payment for the same order already existed.
+     */
+    public CompletableFuture<Boolean> write(Payment payment) {
+        PendingWrite pending = new PendingWrite(payment, new CompletableFuture<>());
+        if (!running) {
+            pending.stored().completeExceptionally(new IllegalStateException("Payment writer is not running"));
+        } else {
+            try {
+                // Blocking here slows the async pool down rather than dropping payments
+                queue.put(pending);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                pending.stored().completeExceptionally(e);
+            }
+        }
+        return pending.stored();
+    }
+
+    @PostConstruct
+    void start() {
+        try {
+            mongoTemplate.indexOps(Payment.class)
+                    .ensureIndex(new Index("orderNumber", Sort.Direction.ASC).unique().named("orderNumber_unique"));
+        } catch (RuntimeException e) {
+            // Typically duplicates written before the index existed; upserts still dedupe by
+            // matching orderNumber, but concurrent inserts are no longer guarded
+            log.error("Could not create the unique orderNumber index on payments; remove duplicate payments and restart", e);
+        }
+        running = true;
+        writer = new Thread(this::run, "payment-bulk-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // Stop accepting, let the writer flush what's queued, then fail any stragglers
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        List<PendingWrite> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.forEach(p -> p.stored().completeExceptionally(new IllegalStateException("Payment service is shutting down")));
+    }
+
+    private void run() {
+        List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                queue.drainTo(batch, maxBatchSize - batch.size());
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void collect(List<PendingWrite> batch) throws InterruptedException {
+        PendingWrite first = running ? queue.take() : queue.poll();
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        queue.drainTo(batch, maxBatchSize - batch.size());
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while (batch.size() < maxBatchSize && running) {
+            long remaining = deadline - System.nanoTime();
+            PendingWrite next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+            queue.drainTo(batch, maxBatchSize - batch.size());
+        }
+    }
+
+    private void flush(List<PendingWrite> batch) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Payment.class);
+        for (PendingWrite pending : batch) {
+            Payment payment = pending.payment();
+            bulk.upsert(Query.query(Criteria.where("orderNumber").is(payment.getOrderNumber())),
+                    new Update()
+                            .setOnInsert("amount", payment.getAmount())
+                            .setOnInsert("paymentStatus", payment.getPaymentStatus())
+                            .setOnInsert("transactionTime", payment.getTransactionTime()));
+        }
+
+        long start = System.nanoTime();
+        BulkWriteResult result;
+        try {
+            result = bulk.execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                // Two upserts racing on a new orderNumber: the index rejects the loser, which is a duplicate
+                if (error.getCode() != DUPLICATE_KEY) {
+                    batch.get(error.getIndex()).stored().completeExceptionally(e);
+                }
+            }
+            result = e.getResult();
+        } catch (RuntimeException e) {
+            log.error("Bulk write of {} payments failed", batch.size(), e);
+            batch.forEach(p -> p.stored().completeExceptionally(e));
+            return;
+        }
+        pipelineMetrics.bulkWrite(batch.size(), System.nanoTime() - start);
+
+        Set<Integer> inserted = new HashSet<>();
+        for (BulkWriteUpsert upsert : result.getUpserts()) {
+            inserted.add(upsert.getIndex());
+        }
+        // Everything not inserted matched an existing payment (no-op if already failed above)
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).stored().complete(inserted.contains(i));
+        }
+    }
+
+    private record PendingWrite(Payment payment, CompletableFuture<Boolean> stored) {
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.replica;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Replaces Boot's single pool with a primary pool ({@code spring.datasource.*}) and a replica
+ * pool ({@code datasource.replica.*}) behind a routing {@code DataSource}: transactions marked
+ * {@code readOnly = true} go to the replica while it keeps up. Spring Data marks only the CRUD
+ * methods repositories inherit ({@code findAll}, {@code count}, ...) that way; query methods
+ * declared on a repository run without a transaction, on the primary, unless they or their
+ * caller are annotated. Both pools are beans, so Boot publishes {@code hikaricp.*} metrics for
+ * each, tagged {@code pool=primary|replica}.
+ */
+@AutoConfiguration(before = DataSourceAutoConfiguration.class)
+@ConditionalOnClass({HikariDataSource.class, LazyConnectionDataSourceProxy.class})
+@ConditionalOnProperty(prefix = "datasource.replica", name = "url")
+@EnableConfigurationProperties({ReadReplicaProperties.class, DataSourceProperties.class})
+public class ReadReplicaAutoConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(ReadReplicaRoutingDataSource.PRIMARY);
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("datasource.replica.hikari")
+    HikariDataSource replicaDataSource(DataSourceProperties primary, ReadReplicaProperties replica) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(primary.determineDriverClassName())
+                .url(replica.getUrl())
+                .username(replica.getUsername() != null ? replica.getUsername() : primary.determineUsername())
+                .password(replica.getPassword() != null ? replica.getPassword() : primary.determinePassword())
+                .build();
+        dataSource.setPoolName(ReadReplicaRoutingDataSource.REPLICA);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replica,
+                                        ReadReplicaProperties properties,
+                                        ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ReplicaLagMonitor(replica, properties, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    // Lazy proxy: the physical connection is picked on first use, after the transaction
+    // manager has marked the transaction read-only
+    @Bean
+    @Primary
+    DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                          @Qualifier("replicaDataSource") DataSource replica,
+                          ReplicaLagMonitor lagMonitor,
+                          ObjectProvider<MeterRegistry> meterRegistry) {
+        ReadReplicaRoutingDataSource routing = new ReadReplicaRoutingDataSource(primary, replica, lagMonitor,
+                meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.replica;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Replica connection settings; the pool itself is tuned under {@code datasource.replica.hikari.*}.
+ * Routing is only set up when {@code url} is given.
+ */
+@Data
+@ConfigurationProperties(prefix = "datasource.replica")
+public class ReadReplicaProperties {
+
+    private String url;
+
+    /**
+     * Defaults to the primary's credentials.
+     */
+    private String username;
+
+    private String password;
+
+    /**
+     * Read-only work goes to the primary while the replica is further behind than this.
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    private Duration lagCheckInterval = Duration.ofSeconds(2);
+
+    /**
+     * Returns the replica's lag in seconds. The default reports 0 once everything received has
+     * been replayed, so an idle primary does not look like lag. Blank disables the check.
+     */
+    private String lagQuery = "SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() "
+            + "THEN 0 ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+}
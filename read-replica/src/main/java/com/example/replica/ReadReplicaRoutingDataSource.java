@@ -0,0 +1,56 @@
+package com.example.replica;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends connections for read-only transactions to the replica while {@link ReplicaLagMonitor}
+ * considers it fresh enough, and everything else to the primary. The read-only flag is only
+ * known once the transaction has started, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final Counter toPrimary;
+    private final Counter toReplica;
+    private final Counter fallback;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                        MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.toPrimary = routed(meterRegistry, PRIMARY, "read-write");
+        this.toReplica = routed(meterRegistry, REPLICA, "read-only");
+        this.fallback = routed(meterRegistry, PRIMARY, "replica-unavailable");
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            toPrimary.increment();
+            return PRIMARY;
+        }
+        if (!lagMonitor.isAvailable()) {
+            fallback.increment();
+            return PRIMARY;
+        }
+        toReplica.increment();
+        return REPLICA;
+    }
+
+    private static Counter routed(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("datasource.routing")
+                .tags("target", target, "reason", reason)
+                .register(meterRegistry);
+    }
+}
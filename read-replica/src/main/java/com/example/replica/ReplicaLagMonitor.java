@@ -0,0 +1,92 @@
+package com.example.replica;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls the replica's replication lag and decides whether read-only work may use it. The
+ * replica counts as unavailable until the first successful check, while it lags by more than
+ * {@code max-lag}, and whenever the check fails.
+ */
+@Slf4j
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    private final DataSource replica;
+    private final String lagQuery;
+    private final double maxLagSeconds;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile double lagSeconds = Double.NaN;
+    private volatile boolean available;
+
+    public ReplicaLagMonitor(DataSource replica, ReadReplicaProperties properties, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.lagQuery = properties.getLagQuery();
+        this.maxLagSeconds = properties.getMaxLag().toMillis() / 1000.0;
+        Gauge.builder("datasource.replica.lag", this, m -> m.lagSeconds)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.available", this, m -> m.available ? 1 : 0)
+                .register(meterRegistry);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Duration interval = properties.getLagCheckInterval();
+        scheduler.scheduleWithFixedDelay(this::check, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    void check() {
+        boolean wasAvailable = available;
+        try {
+            lagSeconds = queryLag();
+            available = lagSeconds <= maxLagSeconds;
+            if (wasAvailable && !available) {
+                log.warn("Replica is {}s behind (max {}s), reading from the primary", lagSeconds, maxLagSeconds);
+            }
+        } catch (Exception e) {
+            lagSeconds = Double.NaN;
+            available = false;
+            if (wasAvailable) {
+                log.warn("Replica lag check failed, reading from the primary: {}", e.toString());
+            }
+        }
+        if (!wasAvailable && available) {
+            log.info("Replica is {}s behind, routing read-only transactions to it", lagSeconds);
+        }
+    }
+
+    private double queryLag() throws Exception {
+        if (lagQuery == null || lagQuery.isBlank()) {
+            // No check configured: availability is just whether a connection can be had
+            try (Connection ignored = replica.getConnection()) {
+                return 0;
+            }
+        }
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(lagQuery)) {
+            return result.next() ? result.getDouble(1) : 0;
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
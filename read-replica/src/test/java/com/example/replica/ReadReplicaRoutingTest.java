@@ -0,0 +1,186 @@
+package com.example.replica;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Runs the auto-configuration against two separate in-memory databases. Each holds a row naming
+ * itself, so a query shows which pool served it; the replica also holds the lag its lag query
+ * reports.
+ */
+class ReadReplicaRoutingTest {
+
+    private final String primaryUrl = "jdbc:h2:mem:primary-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+    private final String replicaUrl = "jdbc:h2:mem:replica-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+
+    private ApplicationContextRunner runner;
+
+    @BeforeEach
+    void createDatabases() throws SQLException {
+        execute(primaryUrl, "CREATE TABLE source (name VARCHAR(16))", "INSERT INTO source VALUES ('primary')");
+        execute(replicaUrl, "CREATE TABLE source (name VARCHAR(16))", "INSERT INTO source VALUES ('replica')",
+                "CREATE TABLE replication_lag (seconds DOUBLE)", "INSERT INTO replication_lag VALUES (0)");
+        runner = new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(ReadReplicaAutoConfiguration.class,
+                        DataSourceAutoConfiguration.class, DataSourceTransactionManagerAutoConfiguration.class,
+                        TransactionAutoConfiguration.class))
+                .withPropertyValues(
+                        "spring.datasource.url=" + primaryUrl,
+                        "datasource.replica.url=" + replicaUrl,
+                        "datasource.replica.max-lag=5s",
+                        // Checks are driven by the tests
+                        "datasource.replica.lag-check-interval=1h",
+                        "datasource.replica.lag-query=SELECT seconds FROM replication_lag");
+    }
+
+    @AfterEach
+    void dropDatabases() throws SQLException {
+        execute(primaryUrl, "SHUTDOWN");
+        execute(replicaUrl, "SHUTDOWN");
+    }
+
+    @Test
+    void readOnlyTransactionsReachTheReplica() {
+        runner.run(context -> {
+            awaitReplicaAvailable(context);
+            assertThat(source(context, true)).isEqualTo("replica");
+            assertThat(source(context, false)).isEqualTo("primary");
+        });
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhileTheReplicaLags() {
+        runner.run(context -> {
+            awaitReplicaAvailable(context);
+
+            execute(replicaUrl, "UPDATE replication_lag SET seconds = 30");
+            context.getBean(ReplicaLagMonitor.class).check();
+            assertThat(source(context, true)).isEqualTo("primary");
+
+            execute(replicaUrl, "UPDATE replication_lag SET seconds = 1");
+            context.getBean(ReplicaLagMonitor.class).check();
+            assertThat(source(context, true)).isEqualTo("replica");
+        });
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhenTheLagCheckFails() {
+        runner.run(context -> {
+            awaitReplicaAvailable(context);
+
+            execute(replicaUrl, "DROP TABLE replication_lag");
+            context.getBean(ReplicaLagMonitor.class).check();
+            assertThat(context.getBean(ReplicaLagMonitor.class).isAvailable()).isFalse();
+            assertThat(source(context, true)).isEqualTo("primary");
+        });
+    }
+
+    @Test
+    void repositoryReadsReachTheReplicaOnlyWhenReadOnly() {
+        runner.withConfiguration(AutoConfigurations.of(HibernateJpaAutoConfiguration.class,
+                        JpaRepositoriesAutoConfiguration.class))
+                .withUserConfiguration(JpaConfiguration.class)
+                .withPropertyValues("spring.jpa.hibernate.ddl-auto=none")
+                .run(context -> {
+                    awaitReplicaAvailable(context);
+                    SourceRepository repository = context.getBean(SourceRepository.class);
+                    // Inherited CRUD reads carry Spring Data's readOnly = true
+                    assertThat(repository.findAll()).extracting(Source::getName).containsExactly("replica");
+                    assertThat(repository.readOnlyName()).isEqualTo("replica");
+                    // A declared query method gets no transaction of its own
+                    assertThat(repository.name()).isEqualTo("primary");
+                });
+    }
+
+    @Test
+    void withoutAReplicaUrlTheSinglePoolIsKept() {
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(ReadReplicaAutoConfiguration.class,
+                        DataSourceAutoConfiguration.class))
+                .withPropertyValues("spring.datasource.url=" + primaryUrl)
+                .run(context -> {
+                    assertThat(context).doesNotHaveBean(ReplicaLagMonitor.class);
+                    assertThat(context).hasSingleBean(DataSource.class);
+                });
+    }
+
+    private static void awaitReplicaAvailable(ApplicationContext context) {
+        // The monitor runs its first check on start-up; until then reads stay on the primary
+        ReplicaLagMonitor monitor = context.getBean(ReplicaLagMonitor.class);
+        await().atMost(Duration.ofSeconds(5)).until(monitor::isAvailable);
+    }
+
+    private static String source(ApplicationContext context, boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transaction.setReadOnly(readOnly);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(context.getBean(DataSource.class));
+        return transaction.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM source", String.class));
+    }
+
+    @Entity(name = "Source")
+    @Table(name = "source")
+    @Getter
+    static class Source {
+
+        @Id
+        private String name;
+    }
+
+    interface SourceRepository extends JpaRepository<Source, String> {
+
+        @Transactional(readOnly = true)
+        @Query("SELECT s.name FROM Source s")
+        String readOnlyName();
+
+        @Query("SELECT s.name FROM Source s")
+        String name();
+    }
+
+    @Configuration
+    @EntityScan(basePackageClasses = Source.class)
+    @EnableJpaRepositories(basePackageClasses = SourceRepository.class, considerNestedRepositories = true)
+    static class JpaConfiguration {
+    }
+
+    private static void execute(String url, String... statements) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.config;
+
+import com.example.service.InventoryEventDispatcher;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.cloud.stream.binder.kafka.KafkaBindingRebalanceListener;
+import org.springframework.cloud.stream.config.ListenerContainerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+
+import java.util.Collection;
+
+/**
+ * Consumers acknowledge order events only after they are processed (ack-mode MANUAL), possibly
+ * out of order across lanes and the async pool.
+ */
+@Configuration
+@Slf4j
+public class InventoryRebalanceConfig {
+
+    private static final String MAIN_BINDING = "orderCreated-in-0";
+
+    /**
+     * Commits each partition only up to its lowest unacknowledged offset.
+     */
+    @Bean
+    public ListenerContainerCustomizer<AbstractMessageListenerContainer<?, ?>> asyncAcksCustomizer() {
+        return (container, destination, group) -> container.getContainerProperties().setAsyncAcks(true);
+    }
+
+    /**
+     * In partitioned mode, holds the consumer inside the revocation callback (so it fetches
+     * nothing more) until the lanes of the revoked partitions have finished and acknowledged
+     * their events; those acks are then committed before the partitions move.
+     */
+    @Bean
+    public KafkaBindingRebalanceListener inventoryRebalanceListener(InventoryEventDispatcher dispatcher) {
+        return new KafkaBindingRebalanceListener() {
+            @Override
+            public void onPartitionsRevokedBeforeCommit(String bindingName, Consumer<?, ?> consumer,
+                                                        Collection<TopicPartition> partitions) {
+                // Retries are applied on the consumer thread, so only the main binding has lanes
+                if (!dispatcher.isPartitioned() || !MAIN_BINDING.equals(bindingName) || partitions.isEmpty()) {
+                    return;
+                }
+                log.info("Draining inventory lanes for revoked {} partitions {}", bindingName, partitions);
+                dispatcher.drain(partitions.stream().map(TopicPartition::partition).toList());
+            }
+        };
+    }
+}
@@ -1,11 +1,16 @@
 package com.example.config;
 
 import com.example.dto.OrderEvent;
-import com.example.service.ShoppingService;
+import com.example.metrics.OrderPipelineMetrics;
+import com.example.service.InventoryEventDispatcher;
+import com.example.service.OrderRetryRouter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
 
 import java.util.function.Consumer;
 
@@ -14,13 +19,51 @@ import java.util.function.Consumer;
 @Slf4j
 public class KafkaConsumerConfig {
 
-    private final ShoppingService shoppingService;
+    private final InventoryEventDispatcher inventoryEventDispatcher;
+    private final OrderRetryRouter orderRetryRouter;
+    private final OrderPipelineMetrics pipelineMetrics;
 
     @Bean
-    public Consumer<OrderEvent> orderCreated() {
-        return event -> {
+    public Consumer<Message<OrderEvent>> orderCreated() {
+        return message -> {
+            OrderEvent event = message.getPayload();
+            pipelineMetrics.received(event);
             log.info("Received order event for inventory update: {}", event.getOrderNumber());
-            shoppingService.updateInventoryAsync(event);
+            inventoryEventDispatcher.dispatch(event, message.getHeaders().get(KafkaHeaders.RECEIVED_PARTITION, Integer.class),
+                    acknowledgment(message));
         };
     }
+
+    // One consumer per retry tier; each blocks only its own tier topic while waiting out the delay
+
+    @Bean
+    public Consumer<Message<OrderEvent>> orderRetry1() {
+        return this::retry;
+    }
+
+    @Bean
+    public Consumer<Message<OrderEvent>> orderRetry2() {
+        return this::retry;
+    }
+
+    @Bean
+    public Consumer<Message<OrderEvent>> orderRetry3() {
+        return this::retry;
+    }
+
+    private void retry(Message<OrderEvent> message) {
+        OrderEvent event = message.getPayload();
+        try {
+            int attempt = orderRetryRouter.awaitDue(message);
+            log.info("Retrying inventory update for order {} (attempt {})", event.getOrderNumber(), attempt);
+            inventoryEventDispatcher.retry(event, attempt, acknowledgment(message));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry order " + event.getOrderNumber(), e);
+        }
+    }
+
+    private static Acknowledgment acknowledgment(Message<?> message) {
+        return message.getHeaders().get(KafkaHeaders.ACKNOWLEDGMENT, Acknowledgment.class);
+    }
 }
@@ -0,0 +1,26 @@
+package com.example.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.stream.binder.kafka.config.ClientFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+
+/**
+ * Binds the binder's Kafka consumers to Micrometer, which publishes per-partition lag as
+ * {@code kafka.consumer.fetch.manager.records.lag{topic,partition}}.
+ */
+@Configuration
+public class KafkaMetricsConfig {
+
+    @Bean
+    public ClientFactoryCustomizer kafkaClientMetrics(MeterRegistry meterRegistry) {
+        return new ClientFactoryCustomizer() {
+            @Override
+            public void configure(ConsumerFactory<?, ?> consumerFactory) {
+                consumerFactory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+            }
+        };
+    }
+}
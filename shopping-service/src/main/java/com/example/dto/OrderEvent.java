@@ -12,4 +12,7 @@ public class OrderEvent {
     private String skuCode;
     private Integer quantity;
     private String status;
+    // Epoch millis when the order was created and when the event was handed to the binder
+    private Long createdAt;
+    private Long publishedAt;
 }
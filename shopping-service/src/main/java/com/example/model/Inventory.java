@@ -34,4 +34,9 @@ public class Inventory {
     private Double rating;
     private Integer reviewCount;
     private Integer quantity;
+
+    // Lanes update a SKU without the Redisson lock; a concurrent locked update then fails to flush
+    @Version
+    @Column(columnDefinition = "bigint not null default 0")
+    private long version;
 }
@@ -0,0 +1,117 @@
+package com.example.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the dead-letter topic on demand with its own consumer group and sends records back to
+ * the first retry tier. Offsets are committed only for records that were re-sent, so a replay
+ * can be repeated or resumed.
+ */
+@Service
+@Slf4j
+public class DeadLetterReplayer {
+
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(2);
+
+    private final OrderRetryRouter orderRetryRouter;
+    private final String brokers;
+    private final String replayGroup;
+
+    public DeadLetterReplayer(OrderRetryRouter orderRetryRouter,
+                              @Value("${spring.cloud.stream.kafka.binder.brokers}") String brokers,
+                              @Value("${spring.application.name}-dlt-replay") String replayGroup) {
+        this.orderRetryRouter = orderRetryRouter;
+        this.brokers = brokers;
+        this.replayGroup = replayGroup;
+    }
+
+    /**
+     * Dead letters not yet replayed.
+     */
+    public synchronized long pending() {
+        try (KafkaConsumer<byte[], byte[]> consumer = newConsumer(1)) {
+            List<TopicPartition> partitions = assign(consumer);
+            Map<TopicPartition, Long> end = consumer.endOffsets(partitions);
+            Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(new HashSet<>(partitions));
+            long pending = 0;
+            for (TopicPartition partition : partitions) {
+                OffsetAndMetadata offset = committed.get(partition);
+                long start = offset != null ? offset.offset() : consumer.beginningOffsets(List.of(partition)).get(partition);
+                pending += end.get(partition) - start;
+            }
+            return pending;
+        }
+    }
+
+    /**
+     * Re-drives up to {@code max} dead letters, oldest first per partition; returns how many were sent.
+     */
+    public synchronized int replay(int max) {
+        int replayed = 0;
+        try (KafkaConsumer<byte[], byte[]> consumer = newConsumer(Math.min(max, 500))) {
+            assign(consumer);
+            Map<TopicPartition, OffsetAndMetadata> done = new HashMap<>();
+            boolean failed = false;
+            while (replayed < max && !failed) {
+                var records = consumer.poll(POLL_TIMEOUT);
+                if (records.isEmpty()) {
+                    break;
+                }
+                for (ConsumerRecord<byte[], byte[]> record : records) {
+                    if (replayed >= max) {
+                        break;
+                    }
+                    if (!orderRetryRouter.replay(record.value(), record.key())) {
+                        // Stop here: polling on would move past this record and commit later offsets over it
+                        failed = true;
+                        break;
+                    }
+                    done.put(new TopicPartition(record.topic(), record.partition()), new OffsetAndMetadata(record.offset() + 1));
+                    replayed++;
+                }
+                consumer.commitSync(done);
+            }
+            if (failed) {
+                log.warn("Stopped dead-letter replay at a record that could not be re-sent; it stays pending");
+            }
+        }
+        log.info("Replayed {} dead-lettered order events from {}", replayed, orderRetryRouter.deadLetterTopic());
+        return replayed;
+    }
+
+    private KafkaConsumer<byte[], byte[]> newConsumer(int maxPollRecords) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, brokers);
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, replayGroup);
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        return new KafkaConsumer<>(config);
+    }
+
+    // Manual assignment: no group rebalance to wait for on every call
+    private List<TopicPartition> assign(KafkaConsumer<byte[], byte[]> consumer) {
+        String topic = orderRetryRouter.deadLetterTopic();
+        List<TopicPartition> partitions = consumer.partitionsFor(topic).stream()
+                .map(info -> new TopicPartition(topic, info.partition()))
+                .toList();
+        consumer.assign(partitions);
+        return partitions;
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.service;
+
+import com.example.dto.OrderEvent;
+import com.example.metrics.OrderPipelineMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Routes order events to inventory processing. In {@code locked} mode every event goes through
+ * the {@code @Async} pool and the per-SKU Redisson lock. In {@code partitioned} mode events run
+ * on serial lanes chosen by partition and SKU; order-service keys events by SKU, so one lane owns
+ * each SKU and no distributed lock is needed. Throughput then scales with the partition count
+ * (times {@code lanes-per-partition}). Failed updates go to {@link OrderRetryRouter}; retries take
+ * the lock in either mode.
+ * <p>
+ * Offsets are acknowledged only once an event has been applied or handed to the retry topics, so
+ * queued events are redelivered after a crash. When partitions are revoked their lanes are drained
+ * first (see {@link #drain}), so the next owner never runs a SKU alongside this instance.
+ */
+@Service
+@Slf4j
+public class InventoryEventDispatcher {
+
+    public enum Mode { LOCKED, PARTITIONED }
+
+    // Transient failures; "insufficient" and "not_found" would fail the same way again
+    private static final Set<String> RETRYABLE_OUTCOMES = Set.of("lock_timeout", "interrupted");
+
+    private final ShoppingService shoppingService;
+    private final OrderRetryRouter orderRetryRouter;
+    private final OrderPipelineMetrics pipelineMetrics;
+    private final Mode mode;
+    private final int lanesPerPartition;
+    private final int laneQueueCapacity;
+    private final Duration drainTimeout;
+    private final Map<Integer, ThreadPoolExecutor> lanes = new ConcurrentHashMap<>();
+
+    public InventoryEventDispatcher(ShoppingService shoppingService,
+                                    OrderRetryRouter orderRetryRouter,
+                                    OrderPipelineMetrics pipelineMetrics,
+                                    @Value("${shopping.inventory.consumer-mode:locked}") Mode mode,
+                                    @Value("${shopping.inventory.lanes-per-partition:1}") int lanesPerPartition,
+                                    @Value("${shopping.inventory.lane-queue-capacity:1000}") int laneQueueCapacity,
+                                    @Value("${shopping.inventory.drain-timeout:PT30S}") Duration drainTimeout) {
+        this.shoppingService = shoppingService;
+        this.orderRetryRouter = orderRetryRouter;
+        this.pipelineMetrics = pipelineMetrics;
+        this.mode = mode;
+        this.lanesPerPartition = Math.max(1, lanesPerPartition);
+        this.laneQueueCapacity = laneQueueCapacity;
+        this.drainTimeout = drainTimeout;
+        log.info("Inventory consumer mode: {}", mode);
+    }
+
+    public boolean isPartitioned() {
+        return mode == Mode.PARTITIONED;
+    }
+
+    /**
+     * First delivery from the main topic.
+     *
+     * @param partition the event's partition, which picks its lane in partitioned mode
+     * @param ack       acknowledged once the event is handled; null when the binding auto-commits
+     */
+    public void dispatch(OrderEvent event, Integer partition, Acknowledgment ack) {
+        if (mode == Mode.LOCKED) {
+            try {
+                shoppingService.updateInventoryAsync(event)
+                        .whenComplete((outcome, error) -> onResult(event, 0, outcome, error, ack));
+            } catch (TaskRejectedException e) {
+                // Async pool saturated: retry later rather than drop the event
+                onResult(event, 0, null, e, ack);
+            }
+            return;
+        }
+        int p = partition != null ? partition : 0;
+        int lane = p * lanesPerPartition + Math.floorMod(event.getSkuCode().hashCode(), lanesPerPartition);
+        long queuedAt = System.nanoTime();
+        lanes.computeIfAbsent(lane, this::newLane).execute(() -> {
+            pipelineMetrics.queueWait(System.nanoTime() - queuedAt);
+            try {
+                onResult(event, 0, shoppingService.updateInventoryInOrder(event), null, ack);
+            } catch (RuntimeException e) {
+                onResult(event, 0, null, e, ack);
+            }
+        });
+    }
+
+    /**
+     * Delivery from retry tier {@code attempt}. Retry topics are assigned independently of
+     * order-events, so this instance may not own the SKU's lane; the update runs under the SKU
+     * lock on the tier consumer's thread instead.
+     */
+    public void retry(OrderEvent event, int attempt, Acknowledgment ack) {
+        String outcome = null;
+        RuntimeException error = null;
+        try {
+            outcome = shoppingService.updateInventoryLocked(event);
+        } catch (RuntimeException e) {
+            error = e;
+        }
+        onResult(event, attempt, outcome, error, ack);
+    }
+
+    /**
+     * Blocks until every event already queued on the lanes of {@code partitions} has run, so
+     * their offsets are acknowledged before the partitions are handed to another instance.
+     */
+    public void drain(Collection<Integer> partitions) {
+        List<ThreadPoolExecutor> revoked = new ArrayList<>();
+        for (int partition : partitions) {
+            for (int i = 0; i < lanesPerPartition; i++) {
+                ThreadPoolExecutor lane = lanes.get(partition * lanesPerPartition + i);
+                if (lane != null) {
+                    revoked.add(lane);
+                }
+            }
+        }
+        drainLanes(revoked);
+    }
+
+    private void drainLanes(List<ThreadPoolExecutor> toDrain) {
+        if (toDrain.isEmpty()) {
+            return;
+        }
+        // Lanes are serial, so a no-op queued behind the pending events completes after them
+        long deadline = System.nanoTime() + drainTimeout.toNanos();
+        List<CompletableFuture<Void>> markers = new ArrayList<>();
+        for (ThreadPoolExecutor lane : toDrain) {
+            markers.add(CompletableFuture.runAsync(() -> { }, lane));
+        }
+        try {
+            CompletableFuture.allOf(markers.toArray(CompletableFuture[]::new))
+                    .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Inventory lanes not drained within {}; their unacknowledged events will be redelivered", drainTimeout);
+        } catch (ExecutionException e) {
+            log.warn("Could not drain inventory lanes", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void onResult(OrderEvent event, int attempt, String outcome, Throwable error, Acknowledgment ack) {
+        try {
+            route(event, attempt, outcome, error);
+        } finally {
+            if (ack != null) {
+                ack.acknowledge();
+            }
+        }
+    }
+
+    private void route(OrderEvent event, int attempt, String outcome, Throwable error) {
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            log.error("Inventory update failed for order {} (SKU {})", event.getOrderNumber(), event.getSkuCode(), cause);
+            orderRetryRouter.retry(event, attempt, cause.toString());
+        } else if (RETRYABLE_OUTCOMES.contains(outcome)) {
+            orderRetryRouter.retry(event, attempt, outcome);
+        } else if (attempt > 0) {
+            orderRetryRouter.recovered(attempt);
+        }
+    }
+
+    private ThreadPoolExecutor newLane(int lane) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(laneQueueCapacity),
+                runnable -> new Thread(runnable, "inventory-lane-" + lane),
+                // A full lane blocks the listener thread instead of reordering or dropping events,
+                // which pauses polling and shows up as consumer lag
+                (runnable, pool) -> {
+                    try {
+                        pool.getQueue().put(runnable);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException("Interrupted while waiting for inventory lane " + lane, e);
+                    }
+                });
+        executor.prestartCoreThread();
+        return executor;
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        lanes.values().forEach(ThreadPoolExecutor::shutdown);
+        for (ThreadPoolExecutor lane : lanes.values()) {
+            lane.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.service;
 
 import com.example.dto.OrderEvent;
+import com.example.metrics.OrderPipelineMetrics;
 import com.example.model.Inventory;
 import com.example.repository.InventoryRepository;
 import lombok.RequiredArgsConstructor;
@@ -11,7 +12,10 @@ import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 @Service
@@ -21,41 +25,121 @@ public class ShoppingService {
 
     private final InventoryRepository inventoryRepository;
     private final RedissonClient redissonClient;
+    private final OrderPipelineMetrics pipelineMetrics;
 
     @Async
     @Transactional
     @CacheEvict(value = { "inventoryList", "inventoryItem" }, allEntries = true)
-    public void updateInventoryAsync(OrderEvent event) {
+    public CompletableFuture<String> updateInventoryAsync(OrderEvent event) {
+        return CompletableFuture.completedFuture(updateUnderLock(event));
+    }
+
+    /**
+     * Same as {@link #updateInventoryAsync} on the calling thread; used for retries, which may
+     * run on an instance other than the one whose lane owns the SKU.
+     */
+    @Transactional
+    @CacheEvict(value = { "inventoryList", "inventoryItem" }, allEntries = true)
+    public String updateInventoryLocked(OrderEvent event) {
+        return updateUnderLock(event);
+    }
+
+    private String updateUnderLock(OrderEvent event) {
         String lockKey = "lock:inventory:" + event.getSkuCode();
         RLock lock = redissonClient.getLock(lockKey);
+        String outcome = "failed";
+        boolean unlockAfterCompletion = false;
 
         try {
             // Attempt to acquire lock for 10 seconds, with 30s lease time
-            if (lock.tryLock(10, 30, TimeUnit.SECONDS)) {
+            long lockStart = System.nanoTime();
+            boolean acquired = lock.tryLock(10, 30, TimeUnit.SECONDS);
+            pipelineMetrics.lockWait(System.nanoTime() - lockStart, acquired);
+            if (acquired) {
                 log.info("Lock acquired for SKU {}. Updating inventory...", event.getSkuCode());
+                // Hold the SKU until the transaction has committed, so the next holder reads the new quantity
+                unlockAfterCompletion = unlockAfterCompletion(lock, event.getSkuCode());
 
-                inventoryRepository.findBySkuCode(event.getSkuCode())
-                        .ifPresentOrElse(inventory -> {
-                            if (inventory.getQuantity() >= event.getQuantity()) {
-                                inventory.setQuantity(inventory.getQuantity() - event.getQuantity());
-                                inventoryRepository.save(inventory);
-                                log.info("Inventory updated for SKU {}. Remaining: {}",
-                                        event.getSkuCode(), inventory.getQuantity());
-                            } else {
-                                log.warn("Insufficient quantity for SKU: {}", event.getSkuCode());
-                            }
-                        }, () -> log.error("SKU not found: {}", event.getSkuCode()));
+                outcome = applyOrder(event);
             } else {
                 log.error("Could not acquire lock for SKU: {} after 10s", event.getSkuCode());
+                outcome = "lock_timeout";
             }
         } catch (InterruptedException e) {
             log.error("Interrupt during inventory lock acquisition for SKU: {}", event.getSkuCode());
+            outcome = "interrupted";
             Thread.currentThread().interrupt();
         } finally {
-            if (lock.isHeldByCurrentThread()) {
-                lock.unlock();
-                log.info("Lock released for SKU {}", event.getSkuCode());
+            if (!unlockAfterCompletion) {
+                unlock(lock, event.getSkuCode());
+            }
+            pipelineMetrics.completed(event, outcome);
+        }
+        return outcome;
+    }
+
+    /**
+     * Lock-free variant for partition-affine consumption (see InventoryEventDispatcher): events
+     * are keyed by SKU, so every event for a SKU arrives on one partition and is applied by a
+     * single lane thread in order. Retries of the SKU may still run elsewhere under the lock;
+     * {@link Inventory}'s version makes the loser of such a race fail instead of losing an update.
+     */
+    @Transactional
+    @CacheEvict(value = { "inventoryList", "inventoryItem" }, allEntries = true)
+    public String updateInventoryInOrder(OrderEvent event) {
+        String outcome = "failed";
+        try {
+            outcome = applyOrder(event);
+        } finally {
+            pipelineMetrics.completed(event, outcome);
+        }
+        return outcome;
+    }
+
+    /**
+     * Defers releasing {@code lock} to the end of the surrounding transaction, on this thread.
+     * Returns false, leaving the caller to unlock, when no transaction is active.
+     */
+    private static boolean unlockAfterCompletion(RLock lock, String skuCode) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                unlock(lock, skuCode);
             }
+        });
+        return true;
+    }
+
+    private static void unlock(RLock lock, String skuCode) {
+        if (lock.isHeldByCurrentThread()) {
+            lock.unlock();
+            log.info("Lock released for SKU {}", skuCode);
         }
     }
+
+    private String applyOrder(OrderEvent event) {
+        long writeStart = System.nanoTime();
+        String outcome = inventoryRepository.findBySkuCode(event.getSkuCode())
+                .map(inventory -> {
+                    if (inventory.getQuantity() >= event.getQuantity()) {
+                        inventory.setQuantity(inventory.getQuantity() - event.getQuantity());
+                        // Flush here so the UPDATE is timed as part of the write
+                        inventoryRepository.saveAndFlush(inventory);
+                        log.info("Inventory updated for SKU {}. Remaining: {}",
+                                event.getSkuCode(), inventory.getQuantity());
+                        return "updated";
+                    }
+                    log.warn("Insufficient quantity for SKU: {}", event.getSkuCode());
+                    return "insufficient";
+                })
+                .orElseGet(() -> {
+                    log.error("SKU not found: {}", event.getSkuCode());
+                    return "not_found";
+                });
+        pipelineMetrics.dbWrite(System.nanoTime() - writeStart);
+        return outcome;
+    }
 }
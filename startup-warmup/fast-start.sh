@@ -0,0 +1,96 @@
+#!/usr/bin/env bash
+# Fast-startup mode: Spring AOT (mvn -Pfast-start) plus a per-module AppCDS archive.
+#
+#   fast-start.sh build   [module...]   package with AOT, unpack, record the CDS archive
+#   fast-start.sh run     <module> [args...]
+#   fast-start.sh measure [module...]   startup-to-in-service time, plain jar vs fast-start
+#
+# The CDS training run refreshes the context and exits, so the module's databases must be
+# reachable (docker-compose up).
+set -euo pipefail
+
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+ALL_MODULES=(discovery-server api-gateway order-service payment-service shopping-service user-service)
+AOT_OPTS=(-Dspring.aot.enabled=true -Dspring.cloud.refresh.enabled=false)
+READY_TIMEOUT=${READY_TIMEOUT:-180}
+
+modules() {
+  if [ $# -gt 0 ]; then printf '%s\n' "$@"; else printf '%s\n' "${ALL_MODULES[@]}"; fi
+}
+
+boot_jar() {
+  ls "$ROOT/$1"/target/*.jar | grep -v -e '\.original$' -e 'plain' | head -n 1
+}
+
+# Unpacked layout: application classes repacked as a jar (CDS ignores classpath directories)
+# and the dependency jars in Spring Boot's classpath.idx order, so runs match the training run.
+unpack() {
+  local module=$1 dir="$ROOT/$1/target/fast-start"
+  rm -rf "$dir" && mkdir -p "$dir/unpacked"
+  (cd "$dir/unpacked" && jar xf "$(boot_jar "$module")")
+  jar --create --file "$dir/application.jar" -C "$dir/unpacked/BOOT-INF/classes" .
+  local classpath="$dir/application.jar"
+  while read -r entry; do
+    classpath+=":$dir/unpacked/$entry"
+  done < <(sed -n 's/^- "\(.*\)"$/\1/p' "$dir/unpacked/BOOT-INF/classpath.idx")
+  echo "$classpath" > "$dir/classpath"
+  sed -n 's/^Start-Class: *\([^[:space:]]*\).*$/\1/p' "$dir/unpacked/META-INF/MANIFEST.MF" > "$dir/main-class"
+}
+
+build() {
+  local list
+  list=$(modules "$@" | paste -sd, -)
+  mvn -B -q -f "$ROOT/pom.xml" -Pfast-start package -DskipTests -pl "$list" -am
+  for module in $(modules "$@"); do
+    unpack "$module"
+    local dir="$ROOT/$module/target/fast-start"
+    echo "Recording CDS archive for $module"
+    java -XX:ArchiveClassesAtExit="$dir/app.jsa" -Dspring.context.exit=onRefresh "${AOT_OPTS[@]}" \
+      -cp "$(cat "$dir/classpath")" "$(cat "$dir/main-class")" > "$dir/training.log" 2>&1 \
+      || { echo "Training run failed, see $dir/training.log" >&2; exit 1; }
+  done
+}
+
+run() {
+  local module=$1; shift
+  local dir="$ROOT/$module/target/fast-start"
+  [ -f "$dir/app.jsa" ] || { echo "No archive for $module, run: $0 build $module" >&2; exit 1; }
+  exec java -XX:SharedArchiveFile="$dir/app.jsa" "${AOT_OPTS[@]}" \
+    -cp "$(cat "$dir/classpath")" "$(cat "$dir/main-class")" "$@"
+}
+
+# Starts a command, waits for StartupWarmup's report line and prints jvm-to-in-service in ms
+time_to_in_service() {
+  local log=$1; shift
+  "$@" > "$log" 2>&1 &
+  local pid=$! waited=0 millis=""
+  while [ $waited -lt "$READY_TIMEOUT" ] && kill -0 $pid 2>/dev/null; do
+    millis=$(sed -n 's/.*Startup report: .*jvm-to-in-service=\([0-9]*\)ms.*/\1/p' "$log" | head -n 1)
+    [ -n "$millis" ] && break
+    sleep 1; waited=$((waited + 1))
+  done
+  kill $pid 2>/dev/null || true
+  wait $pid 2>/dev/null || true
+  echo "${millis:-timeout}"
+}
+
+measure() {
+  printf '%-18s %12s %12s\n' module "jar (ms)" "fast (ms)"
+  for module in $(modules "$@"); do
+    local dir="$ROOT/$module/target/fast-start"
+    local plain fast
+    plain=$(time_to_in_service "$dir/measure-jar.log" java -jar "$(boot_jar "$module")")
+    fast=$(time_to_in_service "$dir/measure-fast.log" java -XX:SharedArchiveFile="$dir/app.jsa" "${AOT_OPTS[@]}" \
+      -cp "$(cat "$dir/classpath")" "$(cat "$dir/main-class")")
+    printf '%-18s %12s %12s\n' "$module" "$plain" "$fast"
+  done
+}
+
+command=${1:-}
+[ $# -gt 0 ] && shift
+case "$command" in
+  build) build "$@" ;;
+  run) run "$@" ;;
+  measure) measure "$@" ;;
+  *) sed -n '2,10p' "$0"; exit 1 ;;
+esac
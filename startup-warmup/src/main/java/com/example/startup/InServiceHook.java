@@ -0,0 +1,10 @@
+package com.example.startup;
+
+/**
+ * Called once warm-up is over to start taking traffic, e.g. by flipping the registry status to UP.
+ */
+@FunctionalInterface
+public interface InServiceHook {
+
+    void inService();
+}
@@ -0,0 +1,174 @@
+package com.example.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aot.AotDetector;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.event.EventListener;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs once the application is ready: opens a connection on every {@link DataSource} so the
+ * pools start filling, replays the configured hot endpoints against the local web server to
+ * load classes and get the JIT going, then puts the instance into service (see
+ * {@link InServiceHook}) and logs how long it took from JVM start.
+ */
+@Slf4j
+public class StartupWarmup {
+
+    private final StartupWarmupProperties properties;
+    private final List<DataSource> dataSources;
+    private final List<InServiceHook> inServiceHooks;
+
+    private volatile int port = -1;
+    private volatile long readyMillis = -1;
+    private volatile long warmupMillis = -1;
+    private volatile long inServiceMillis = -1;
+
+    public StartupWarmup(StartupWarmupProperties properties, List<DataSource> dataSources,
+                         List<InServiceHook> inServiceHooks) {
+        this.properties = properties;
+        this.dataSources = dataSources;
+        this.inServiceHooks = inServiceHooks;
+    }
+
+    @EventListener
+    void onWebServerInitialized(WebServerInitializedEvent event) {
+        // Management may run on its own server; warm the application one
+        if (event.getApplicationContext().getServerNamespace() == null) {
+            port = event.getWebServer().getPort();
+        }
+    }
+
+    @EventListener
+    void onReady(ApplicationReadyEvent event) {
+        readyMillis = uptime();
+        long start = System.nanoTime();
+        if (properties.isEnabled()) {
+            primeDataSources();
+            replayRequests();
+        }
+        warmupMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        inServiceHooks.forEach(InServiceHook::inService);
+        inServiceMillis = uptime();
+        log.info("Startup report: jvm-to-ready={}ms warm-up={}ms jvm-to-in-service={}ms (aot={}, cds={})",
+                readyMillis, warmupMillis, inServiceMillis, AotDetector.useGeneratedArtifacts(), usesSharedArchive());
+    }
+
+    /**
+     * Milliseconds from JVM start until the application context was ready, or -1 before that.
+     */
+    public long getReadyMillis() {
+        return readyMillis;
+    }
+
+    public long getWarmupMillis() {
+        return warmupMillis;
+    }
+
+    /**
+     * Milliseconds from JVM start until the instance was put into service, or -1 before that.
+     */
+    public long getInServiceMillis() {
+        return inServiceMillis;
+    }
+
+    private void primeDataSources() {
+        for (DataSource dataSource : dataSources) {
+            try (Connection ignored = dataSource.getConnection()) {
+                // Hikari starts its pool on first use and fills up to minimum-idle in the background
+            } catch (Exception e) {
+                log.warn("Warm-up could not open a connection on {}: {}", dataSource, e.toString());
+            }
+        }
+    }
+
+    private void replayRequests() {
+        if (properties.getRequests().isEmpty() || port <= 0) {
+            return;
+        }
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        long deadline = System.nanoTime() + properties.getTimeout().toNanos();
+        int concurrency = Math.max(1, properties.getConcurrency());
+        AtomicInteger sent = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "startup-warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        int maxIterations = properties.getRequests().stream().mapToInt(this::iterations).max().orElse(0);
+        for (int worker = 0; worker < concurrency; worker++) {
+            int first = worker;
+            int rounds = (maxIterations + concurrency - 1 - worker) / concurrency;
+            workers.execute(() -> {
+                for (int round = 0; round < rounds && System.nanoTime() < deadline; round++) {
+                    // Rounds are dealt out to workers in turn, so this is the round's overall number
+                    int n = first + round * concurrency;
+                    for (StartupWarmupProperties.Request request : properties.getRequests()) {
+                        if (n >= iterations(request)) {
+                            continue;
+                        }
+                        try {
+                            client.send(toHttpRequest(request), HttpResponse.BodyHandlers.discarding());
+                            sent.incrementAndGet();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        } catch (Exception e) {
+                            failed.incrementAndGet();
+                        }
+                    }
+                }
+            });
+        }
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(properties.getTimeout().toMillis() + 5_000, TimeUnit.MILLISECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        log.info("Warm-up sent {} requests to port {} ({} failed)", sent.get(), port, failed.get());
+    }
+
+    private int iterations(StartupWarmupProperties.Request request) {
+        return request.getIterations() != null ? request.getIterations() : properties.getIterations();
+    }
+
+    private HttpRequest toHttpRequest(StartupWarmupProperties.Request request) {
+        HttpRequest.BodyPublisher body = request.getBody() == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(request.getBody());
+        return HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + request.getPath()))
+                .timeout(Duration.ofSeconds(5))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .method(request.getMethod(), body)
+                .build();
+    }
+
+    private static long uptime() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+
+    private static boolean usesSharedArchive() {
+        return ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+                .anyMatch(argument -> argument.startsWith("-XX:SharedArchiveFile"));
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.startup;
+
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warm-up and startup reporting for every service. With {@code eureka.instance.initial-status: STARTING}
+ * the instance registers as STARTING, so the gateway's load balancer skips it until warm-up
+ * flips it to UP.
+ */
+@AutoConfiguration
+@EnableConfigurationProperties(StartupWarmupProperties.class)
+public class StartupWarmupAutoConfiguration {
+
+    @Bean
+    StartupWarmup startupWarmup(StartupWarmupProperties properties, ObjectProvider<DataSource> dataSources,
+                                ObjectProvider<InServiceHook> inServiceHooks) {
+        return new StartupWarmup(properties, dataSources.orderedStream().toList(),
+                inServiceHooks.orderedStream().toList());
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(ApplicationInfoManager.class)
+    @Slf4j
+    static class EurekaStatusConfiguration {
+
+        @Bean
+        InServiceHook eurekaInServiceHook(ObjectProvider<ApplicationInfoManager> applicationInfoManager) {
+            return () -> applicationInfoManager.ifAvailable(manager -> {
+                // Only release what we held back; leave DOWN/OUT_OF_SERVICE set by others alone
+                if (manager.getInfo().getStatus() == InstanceStatus.STARTING) {
+                    manager.setInstanceStatus(InstanceStatus.UP);
+                    log.info("Warm-up done, registry status set to UP");
+                }
+            });
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    static class StartupMetricsConfiguration {
+
+        // Alongside Boot's application.started.time and application.ready.time
+        @Bean
+        MeterBinder startupWarmupMetrics(StartupWarmup startupWarmup) {
+            return registry -> {
+                TimeGauge.builder("application.warmup.time", startupWarmup,
+                                TimeUnit.MILLISECONDS, StartupWarmup::getWarmupMillis)
+                        .description("Time spent warming up after the application was ready")
+                        .register(registry);
+                TimeGauge.builder("application.in-service.time", startupWarmup,
+                                TimeUnit.MILLISECONDS, StartupWarmup::getInServiceMillis)
+                        .description("Time from JVM start until the instance was put into service")
+                        .register(registry);
+            };
+        }
+    }
+}
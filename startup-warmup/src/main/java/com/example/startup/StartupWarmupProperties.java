@@ -0,0 +1,57 @@
+package com.example.startup;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "startup.warmup")
+public class StartupWarmupProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Hot endpoints replayed against this instance once it is ready. Responses are ignored;
+     * a 404 still exercises the same filters, handlers and serializers.
+     */
+    private List<Request> requests = new ArrayList<>();
+
+    /**
+     * Times each request is sent.
+     */
+    private int iterations = 200;
+
+    /**
+     * Client threads sending warm-up requests in parallel, so pools grow past one connection.
+     */
+    private int concurrency = 4;
+
+    /**
+     * Upper bound on the warm-up; the instance goes into service when it runs out either way.
+     */
+    private Duration timeout = Duration.ofSeconds(20);
+
+    @Data
+    public static class Request {
+
+        private String method = "GET";
+
+        /**
+         * Path and query on this instance, e.g. {@code /api/inventory}.
+         */
+        private String path;
+
+        /**
+         * JSON body for non-GET requests.
+         */
+        private String body;
+
+        /**
+         * Times this request is sent, if not {@code iterations}; keep it low for expensive reads.
+         */
+        private Integer iterations;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.tracing;
+
+import brave.Tracing;
+import brave.TracingCustomizer;
+import brave.handler.SpanHandler;
+import brave.sampler.Sampler;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.tracing.BraveAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+import java.util.ArrayList;
+
+/**
+ * Replaces the fixed-probability sampler with a rate-limited head sampler and, unless
+ * {@code tracing.adaptive-sampling.tail-enabled=false}, routes unsampled spans through
+ * {@link TailSamplingSpanHandler} so errors and slow requests are still exported.
+ * Decisions are counted in {@code tracing.sampling.decisions}.
+ */
+@AutoConfiguration(before = BraveAutoConfiguration.class)
+@ConditionalOnClass(Tracing.class)
+@ConditionalOnProperty(prefix = "tracing.adaptive-sampling", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(AdaptiveSamplingProperties.class)
+public class AdaptiveSamplingAutoConfiguration {
+
+    @Bean
+    SamplingDecisions samplingDecisions(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new SamplingDecisions(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    // Registered before BraveAutoConfiguration so its probability sampler backs off
+    @Bean
+    Sampler adaptiveHeadSampler(AdaptiveSamplingProperties properties, SamplingDecisions decisions) {
+        return new RateLimitedHeadSampler(properties.getTracesPerSecond(), decisions);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "tracing.adaptive-sampling", name = "tail-enabled", matchIfMissing = true)
+    TracingCustomizer tailSamplingCustomizer(AdaptiveSamplingProperties properties, SamplingDecisions decisions,
+                                             ObjectProvider<MeterRegistry> meterRegistry) {
+        return builder -> {
+            // Wrap whatever exporters Boot registered, then record unsampled spans locally for it
+            TailSamplingSpanHandler tail = new TailSamplingSpanHandler(
+                    new ArrayList<SpanHandler>(builder.spanHandlers()), properties, decisions);
+            builder.clearSpanHandlers()
+                    .addSpanHandler(tail)
+                    .alwaysSampleLocal();
+            Gauge.builder("tracing.sampling.buffered.traces", tail, TailSamplingSpanHandler::bufferedTraces)
+                    .register(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+        };
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.tracing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "tracing.adaptive-sampling")
+public class AdaptiveSamplingProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * New traces sampled per second by this service; the rest are left to the tail rules.
+     */
+    private int tracesPerSecond = 10;
+
+    /**
+     * Buffer unsampled spans locally and keep the trace if it errors or runs slow. Disabling
+     * this skips local recording of unsampled spans entirely (cheapest, head sampling only).
+     */
+    private boolean tailEnabled = true;
+
+    /**
+     * A local trace whose root span takes at least this long is kept.
+     */
+    private Duration slowThreshold = Duration.ofMillis(500);
+
+    /**
+     * Local traces buffered at once; new traces beyond this are not tail-sampled.
+     */
+    private int maxBufferedTraces = 2_000;
+
+    /**
+     * Spans kept per buffered trace; further spans are dropped, but still count toward the decision.
+     */
+    private int maxSpansPerTrace = 256;
+
+    /**
+     * Buffered traces whose local root hasn't ended after this long are discarded.
+     */
+    private Duration maxTraceAge = Duration.ofMinutes(1);
+
+    /**
+     * Recent keep/drop decisions remembered, so spans ending after their local root follow it.
+     */
+    private int recentDecisions = 10_000;
+}
@@ -0,0 +1,27 @@
+package com.example.tracing;
+
+import brave.sampler.RateLimitingSampler;
+import brave.sampler.Sampler;
+
+/**
+ * Samples at most N new traces per second, independent of traffic, and counts each decision.
+ * Only consulted for traces that start here; requests and messages that arrive with a decision
+ * keep it.
+ */
+class RateLimitedHeadSampler extends Sampler {
+
+    private final Sampler delegate;
+    private final SamplingDecisions decisions;
+
+    RateLimitedHeadSampler(int tracesPerSecond, SamplingDecisions decisions) {
+        this.delegate = tracesPerSecond > 0 ? RateLimitingSampler.create(tracesPerSecond) : Sampler.NEVER_SAMPLE;
+        this.decisions = decisions;
+    }
+
+    @Override
+    public boolean isSampled(long traceId) {
+        boolean sampled = delegate.isSampled(traceId);
+        decisions.head(sampled);
+        return sampled;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.tracing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Counts every sampling decision as {@code tracing.sampling.decisions{decision}}:
+ * head_sampled / head_rejected for new traces, then tail_error, tail_slow, tail_dropped,
+ * tail_overflow and tail_expired for local traces that were not head-sampled.
+ */
+class SamplingDecisions {
+
+    static final String METRIC = "tracing.sampling.decisions";
+
+    private final Counter headSampled;
+    private final Counter headRejected;
+    private final Counter tailError;
+    private final Counter tailSlow;
+    private final Counter tailDropped;
+    private final Counter tailOverflow;
+    private final Counter tailExpired;
+
+    SamplingDecisions(MeterRegistry meterRegistry) {
+        headSampled = counter(meterRegistry, "head_sampled");
+        headRejected = counter(meterRegistry, "head_rejected");
+        tailError = counter(meterRegistry, "tail_error");
+        tailSlow = counter(meterRegistry, "tail_slow");
+        tailDropped = counter(meterRegistry, "tail_dropped");
+        tailOverflow = counter(meterRegistry, "tail_overflow");
+        tailExpired = counter(meterRegistry, "tail_expired");
+    }
+
+    void head(boolean sampled) {
+        (sampled ? headSampled : headRejected).increment();
+    }
+
+    void tailError() {
+        tailError.increment();
+    }
+
+    void tailSlow() {
+        tailSlow.increment();
+    }
+
+    void tailDropped() {
+        tailDropped.increment();
+    }
+
+    void tailOverflow() {
+        tailOverflow.increment();
+    }
+
+    void tailExpired(int traces) {
+        tailExpired.increment(traces);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String decision) {
+        return Counter.builder(METRIC)
+                .tag("decision", decision)
+                .register(meterRegistry);
+    }
+}
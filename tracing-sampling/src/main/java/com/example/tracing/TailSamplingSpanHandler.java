@@ -0,0 +1,200 @@
+package com.example.tracing;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sits in front of the exporting span handlers. Head-sampled spans pass straight through.
+ * Unsampled spans (recorded because tracing is set to always sample locally) are buffered per
+ * local trace until its root span ends; the trace is then exported if any span errored or the
+ * root ran past the slow threshold, and discarded otherwise. Spans ending after their root
+ * follow the remembered decision, and traces whose root never ends are evicted by age.
+ * <p>
+ * Decisions are local to each service: a slow order-service request is kept by order-service,
+ * while the consumers downstream keep their part only if it is slow or failing too.
+ */
+class TailSamplingSpanHandler extends SpanHandler {
+
+    private final List<SpanHandler> delegates;
+    private final long slowThresholdMicros;
+    private final int maxBufferedTraces;
+    private final int maxSpansPerTrace;
+    private final long maxTraceAgeNanos;
+    private final SamplingDecisions decisions;
+    private final Map<Long, PendingTrace> pending = new ConcurrentHashMap<>();
+    // Spans that finish after their root (async work) follow the decision made for the root
+    private final Map<Long, Boolean> recentDecisions;
+    private final AtomicLong nextEvictionNanos = new AtomicLong(System.nanoTime());
+
+    TailSamplingSpanHandler(List<SpanHandler> delegates, AdaptiveSamplingProperties properties,
+                            SamplingDecisions decisions) {
+        this.delegates = List.copyOf(delegates);
+        this.slowThresholdMicros = TimeUnit.NANOSECONDS.toMicros(properties.getSlowThreshold().toNanos());
+        this.maxBufferedTraces = properties.getMaxBufferedTraces();
+        this.maxSpansPerTrace = properties.getMaxSpansPerTrace();
+        this.maxTraceAgeNanos = properties.getMaxTraceAge().toNanos();
+        this.decisions = decisions;
+        int decisionCapacity = properties.getRecentDecisions();
+        this.recentDecisions = Collections.synchronizedMap(new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+                return size() > decisionCapacity;
+            }
+        });
+    }
+
+    int bufferedTraces() {
+        return pending.size();
+    }
+
+    @Override
+    public boolean begin(TraceContext context, MutableSpan span, TraceContext parent) {
+        if (Boolean.TRUE.equals(context.sampled())) {
+            for (SpanHandler delegate : delegates) {
+                if (!delegate.begin(context, span, parent)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+        if (Boolean.TRUE.equals(context.sampled())) {
+            return forward(context, span, cause);
+        }
+
+        long localRootId = context.localRootId();
+        Boolean kept = recentDecisions.get(localRootId);
+        if (kept != null) {
+            return kept ? forward(asSampled(context), span, cause) : true;
+        }
+
+        PendingTrace trace = pending.get(localRootId);
+        if (trace == null) {
+            evictExpired();
+            if (pending.size() >= maxBufferedTraces) {
+                if (context.isLocalRoot()) {
+                    decisions.tailOverflow();
+                    recentDecisions.put(localRootId, false);
+                }
+                return true;
+            }
+            trace = pending.computeIfAbsent(localRootId, id -> new PendingTrace(System.nanoTime()));
+        }
+        trace.add(context, span, cause, maxSpansPerTrace);
+
+        if (context.isLocalRoot()) {
+            pending.remove(localRootId);
+            decide(localRootId, trace, span);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean handlesAbandoned() {
+        // An abandoned local root still has to release its buffered trace
+        return true;
+    }
+
+    private void decide(long localRootId, PendingTrace trace, MutableSpan root) {
+        boolean slow = root.finishTimestamp() - root.startTimestamp() >= slowThresholdMicros;
+        if (trace.hasError()) {
+            decisions.tailError();
+        } else if (slow) {
+            decisions.tailSlow();
+        } else {
+            decisions.tailDropped();
+            recentDecisions.put(localRootId, false);
+            return;
+        }
+        recentDecisions.put(localRootId, true);
+        for (BufferedSpan buffered : trace.drain()) {
+            forward(asSampled(buffered.context()), buffered.span(), buffered.cause());
+        }
+    }
+
+    /**
+     * Drops buffered traces older than the max age, at most once a second. These are traces whose
+     * local root ended before tail sampling saw it, or never ends at all.
+     */
+    private void evictExpired() {
+        long now = System.nanoTime();
+        long due = nextEvictionNanos.get();
+        if (now - due < 0 || !nextEvictionNanos.compareAndSet(due, now + TimeUnit.SECONDS.toNanos(1))) {
+            return;
+        }
+        int expired = 0;
+        for (Iterator<PendingTrace> it = pending.values().iterator(); it.hasNext(); ) {
+            if (now - it.next().createdNanos() > maxTraceAgeNanos) {
+                it.remove();
+                expired++;
+            }
+        }
+        if (expired > 0) {
+            decisions.tailExpired(expired);
+        }
+    }
+
+    private boolean forward(TraceContext context, MutableSpan span, Cause cause) {
+        for (SpanHandler delegate : delegates) {
+            if (cause == Cause.ABANDONED && !delegate.handlesAbandoned()) {
+                continue;
+            }
+            if (!delegate.end(context, span, cause)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static TraceContext asSampled(TraceContext context) {
+        return context.toBuilder().sampled(true).build();
+    }
+
+    private record BufferedSpan(TraceContext context, MutableSpan span, Cause cause) {
+    }
+
+    private static final class PendingTrace {
+
+        private final long createdNanos;
+        private final List<BufferedSpan> spans = new ArrayList<>();
+        private boolean error;
+
+        PendingTrace(long createdNanos) {
+            this.createdNanos = createdNanos;
+        }
+
+        long createdNanos() {
+            return createdNanos;
+        }
+
+        synchronized void add(TraceContext context, MutableSpan span, Cause cause, int maxSpans) {
+            error |= span.error() != null || span.tag("error") != null;
+            if (spans.size() < maxSpans) {
+                // Brave may reuse the span after handlers return, so keep a copy
+                spans.add(new BufferedSpan(context, new MutableSpan(span), cause));
+            }
+        }
+
+        synchronized boolean hasError() {
+            return error;
+        }
+
+        synchronized List<BufferedSpan> drain() {
+            return List.copyOf(spans);
+        }
+    }
+}
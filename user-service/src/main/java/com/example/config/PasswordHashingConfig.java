@@ -0,0 +1,40 @@
+package com.example.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class PasswordHashingConfig {
+
+    /**
+     * Dedicated bulkhead for BCrypt work. Sized to the CPU count because hashing is
+     * purely CPU bound; the bounded queue caps how many request threads can be parked
+     * waiting for a hash, and anything beyond it is rejected straight away.
+     */
+    @Bean(name = "passwordHashingExecutor", destroyMethod = "shutdown")
+    public ThreadPoolExecutor passwordHashingExecutor(
+            @Value("${auth.password.threads:0}") int threads,
+            @Value("${auth.password.queue-capacity:64}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ArrayBlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(queueCapacity);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                queue, new CustomizableThreadFactory("PasswordHash-"), new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("auth.password.queue.size", queue, ArrayBlockingQueue::size)
+                .description("Password hashing tasks waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashing tasks currently running")
+                .register(meterRegistry);
+        return executor;
+    }
+}
@@ -1,10 +1,18 @@
 package com.example.controller;
 
+import com.example.dto.UserFilter;
+import com.example.dto.UserSummary;
 import com.example.model.User;
 import com.example.repository.UserRepository;
 import com.example.service.AuthService;
+import com.example.service.UserActivityTracker;
+import com.example.service.UserDirectoryService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -17,6 +25,11 @@ public class UserController {
 
     private final AuthService authService;
     private final UserRepository userRepository;
+    private final UserActivityTracker activityTracker;
+    private final UserDirectoryService userDirectory;
+
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
 
     @PostMapping("/auth/register")
     public User register(@RequestBody User user) {
@@ -28,9 +41,39 @@ public class UserController {
         return authService.login(request.get("username"), request.get("password"));
     }
 
+    /**
+     * One keyset page of users in id order. Pass the {@code X-Next-After-Id} response header back
+     * as {@code afterId} for the next page; the header is absent on the last page.
+     */
     @GetMapping("/users")
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public ResponseEntity<List<UserSummary>> getUsers(
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) User.Role role,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime activeSince) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<UserSummary> users = userDirectory.page(new UserFilter(role, createdFrom, createdTo, activeSince), afterId, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (users.size() == size) {
+            response.header("X-Next-After-Id", String.valueOf(users.get(users.size() - 1).id()));
+        }
+        return response.body(users);
+    }
+
+    /**
+     * Every matching user as newline-delimited JSON, streamed from a database cursor.
+     */
+    @GetMapping("/users/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(required = false) User.Role role,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime activeSince) {
+        UserFilter filter = new UserFilter(role, createdFrom, createdTo, activeSince);
+        StreamingResponseBody body = out -> userDirectory.export(filter, out);
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
     }
 
     @GetMapping("/users/count")
@@ -45,7 +88,6 @@ public class UserController {
 
     @GetMapping("/users/analytics/active")
     public Map<String, Long> getActiveSessions() {
-        LocalDateTime fifteenMinutesAgo = LocalDateTime.now().minusMinutes(15);
-        return Map.of("activeSessions", userRepository.countByLastActiveAtAfter(fifteenMinutesAgo));
+        return Map.of("activeSessions", activityTracker.activeSessions());
     }
 }
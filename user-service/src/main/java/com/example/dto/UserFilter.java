@@ -0,0 +1,11 @@
+package com.example.dto;
+
+import com.example.model.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional criteria for listing users; null fields don't filter.
+ */
+public record UserFilter(User.Role role, LocalDateTime createdFrom, LocalDateTime createdTo, LocalDateTime activeSince) {
+}
@@ -0,0 +1,11 @@
+package com.example.dto;
+
+import com.example.model.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns the user directory shows; never carries the password hash.
+ */
+public record UserSummary(Long id, String username, User.Role role, LocalDateTime createdAt, LocalDateTime lastActiveAt) {
+}
@@ -0,0 +1,8 @@
+package com.example.exception;
+
+public class AuthOverloadedException extends RuntimeException {
+
+    public AuthOverloadedException(String message) {
+        super(message);
+    }
+}
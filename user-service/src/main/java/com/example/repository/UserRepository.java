@@ -1,13 +1,51 @@
 package com.example.repository;
 
+import com.example.dto.UserSummary;
 import com.example.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
 
+    @Transactional(readOnly = true)
     long countByRole(User.Role role);
 
-    long countByLastActiveAtAfter(java.time.LocalDateTime time);
+    @Transactional(readOnly = true)
+    long countByLastActiveAtAfter(LocalDateTime time);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT u.id, u.lastActiveAt FROM User u WHERE u.lastActiveAt > :time")
+    List<Object[]> findLastActiveSince(@Param("time") LocalDateTime time);
+
+    /**
+     * Keyset page: users with id above {@code afterId}, in id order; size the page with
+     * {@code PageRequest.of(0, limit)}. Selects only the summary columns.
+     */
+    @Query("SELECT new com.example.dto.UserSummary(u.id, u.username, u.role, u.createdAt, u.lastActiveAt) FROM User u "
+            + "WHERE u.id > :afterId "
+            + "AND (:role IS NULL OR u.role = :role) "
+            + "AND (:createdFrom IS NULL OR u.createdAt >= :createdFrom) "
+            + "AND (:createdTo IS NULL OR u.createdAt < :createdTo) "
+            + "AND (:activeSince IS NULL OR u.lastActiveAt >= :activeSince) "
+            + "ORDER BY u.id")
+    List<UserSummary> findSummaries(@Param("afterId") long afterId,
+                                    @Param("role") User.Role role,
+                                    @Param("createdFrom") LocalDateTime createdFrom,
+                                    @Param("createdTo") LocalDateTime createdTo,
+                                    @Param("activeSince") LocalDateTime activeSince,
+                                    Pageable page);
 }
@@ -3,8 +3,9 @@ package com.example.service;
 import com.example.model.User;
 import com.example.repository.UserRepository;
 import com.example.security.JwtService;
+import com.example.security.PasswordHasher;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
@@ -12,14 +13,16 @@ import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtService jwtService;
+    private final UserActivityTracker activityTracker;
 
     public User register(User user) {
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        user.setPassword(passwordHasher.encode(user.getPassword()));
         if (user.getRole() == null) {
             user.setRole(User.Role.CUSTOMER);
         }
@@ -30,13 +33,18 @@ public class AuthService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        if (!passwordEncoder.matches(password, user.getPassword())) {
+        if (!passwordHasher.matches(password, user.getPassword())) {
             throw new RuntimeException("Invalid credentials");
         }
 
+        // Transparently move the stored hash up to the currently configured BCrypt cost
+        if (passwordHasher.needsRehash(user.getPassword())) {
+            userRepository.updatePassword(user.getId(), passwordHasher.encode(password));
+            log.info("Rehashed password for user {} with current BCrypt strength", username);
+        }
+
         String token = jwtService.generateToken(username, user.getRole().name());
-        user.setLastActiveAt(java.time.LocalDateTime.now());
-        userRepository.save(user);
+        activityTracker.recordActivity(user.getId());
 
         Map<String, String> response = new HashMap<>();
         response.put("token", token);
@@ -0,0 +1,67 @@
+package com.example.service;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Counts distinct keys whose latest activity falls inside a trailing time window.
+ * Time is split into fixed buckets; each key contributes to exactly one bucket (the
+ * one holding its most recent timestamp), so reads are a sum over a fixed number of
+ * buckets regardless of how many users are active.
+ */
+class SlidingWindowCounter {
+
+    private final long bucketMillis;
+    private final int bucketsInWindow;
+    private final long[] bucketIndex;
+    private final long[] counts;
+
+    SlidingWindowCounter(Duration window, Duration bucketSize) {
+        this.bucketMillis = bucketSize.toMillis();
+        this.bucketsInWindow = (int) Math.max(1, window.toMillis() / bucketMillis);
+        this.bucketIndex = new long[bucketsInWindow + 1];
+        this.counts = new long[bucketsInWindow + 1];
+        Arrays.fill(bucketIndex, Long.MIN_VALUE);
+    }
+
+    /**
+     * Moves a key from the bucket of its previous activity (if any, and still tracked)
+     * to the bucket of its current activity.
+     */
+    synchronized void move(Long previousMillis, long currentMillis) {
+        if (previousMillis != null) {
+            long previous = previousMillis / bucketMillis;
+            int slot = slot(previous);
+            if (bucketIndex[slot] == previous && counts[slot] > 0) {
+                counts[slot]--;
+            }
+        }
+        long current = currentMillis / bucketMillis;
+        int slot = slot(current);
+        if (bucketIndex[slot] != current) {
+            bucketIndex[slot] = current;
+            counts[slot] = 0;
+        }
+        counts[slot]++;
+    }
+
+    synchronized long count(long nowMillis) {
+        long now = nowMillis / bucketMillis;
+        long total = 0;
+        for (int i = 0; i < bucketIndex.length; i++) {
+            long age = now - bucketIndex[i];
+            if (age >= 0 && age < bucketsInWindow) {
+                total += counts[i];
+            }
+        }
+        return total;
+    }
+
+    boolean isInWindow(long timestampMillis, long nowMillis) {
+        return nowMillis / bucketMillis - timestampMillis / bucketMillis < bucketsInWindow;
+    }
+
+    private int slot(long index) {
+        return (int) Math.floorMod(index, (long) bucketIndex.length);
+    }
+}
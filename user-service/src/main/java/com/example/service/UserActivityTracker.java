@@ -0,0 +1,138 @@
+package com.example.service;
+
+import com.example.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind tracker for users' lastActiveAt. Activity is recorded in memory and
+ * flushed to the users table in periodic batched UPDATEs. The active-session count is
+ * refreshed from the table once per flush, so it covers every instance rather than each
+ * request scanning it; this instance's own in-memory window keeps it current in between.
+ */
+@Component
+@Slf4j
+public class UserActivityTracker {
+
+    private static final String UPDATE_SQL = "UPDATE users SET last_active_at = ? WHERE id = ?";
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration window;
+    private final SlidingWindowCounter activeUsers;
+
+    private final Map<Long, Long> lastSeen = new ConcurrentHashMap<>();
+    private final Map<Long, Long> pendingWrites = new ConcurrentHashMap<>();
+    private volatile long clusterActive;
+
+    public UserActivityTracker(UserRepository userRepository,
+                               JdbcTemplate jdbcTemplate,
+                               @Value("${user.activity.window:15m}") Duration window,
+                               @Value("${user.activity.bucket:1m}") Duration bucket) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.window = window;
+        this.activeUsers = new SlidingWindowCounter(window, bucket);
+    }
+
+    @PostConstruct
+    void loadRecentActivity() {
+        LocalDateTime since = LocalDateTime.now().minus(window);
+        for (Object[] row : userRepository.findLastActiveSince(since)) {
+            long timestamp = toMillis((LocalDateTime) row[1]);
+            lastSeen.compute((Long) row[0], (id, previous) -> {
+                activeUsers.move(previous, timestamp);
+                return timestamp;
+            });
+        }
+        clusterActive = lastSeen.size();
+        log.info("Loaded {} recently active users into activity window", lastSeen.size());
+    }
+
+    public void recordActivity(Long userId) {
+        long now = System.currentTimeMillis();
+        lastSeen.compute(userId, (id, previous) -> {
+            activeUsers.move(previous, now);
+            return now;
+        });
+        pendingWrites.put(userId, now);
+    }
+
+    /**
+     * Users active within the window across all instances, as of the last flush. Never lower
+     * than this instance's own count, which also covers the time before the first flush.
+     */
+    public long activeSessions() {
+        return Math.max(clusterActive, activeUsers.count(System.currentTimeMillis()));
+    }
+
+    @Scheduled(fixedDelayString = "${user.activity.flush-interval:PT5S}")
+    public void flush() {
+        if (!pendingWrites.isEmpty()) {
+            writePending();
+        }
+        refreshClusterActive();
+        evictExpired();
+    }
+
+    private void writePending() {
+        List<Object[]> batch = new ArrayList<>(pendingWrites.size());
+        for (Map.Entry<Long, Long> entry : pendingWrites.entrySet()) {
+            Long userId = entry.getKey();
+            Long timestamp = entry.getValue();
+            // Only drop the entry if it was not bumped again while we were reading it
+            if (pendingWrites.remove(userId, timestamp)) {
+                batch.add(new Object[] { new Timestamp(timestamp), userId });
+            }
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, batch);
+            log.debug("Flushed lastActiveAt for {} users", batch.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to flush user activity, will retry on next cycle", e);
+            for (Object[] row : batch) {
+                long timestamp = ((Timestamp) row[0]).getTime();
+                pendingWrites.merge((Long) row[1], timestamp, Math::max);
+            }
+        }
+    }
+
+    private void refreshClusterActive() {
+        try {
+            clusterActive = userRepository.countByLastActiveAtAfter(LocalDateTime.now().minus(window));
+        } catch (RuntimeException e) {
+            log.warn("Failed to count active users, keeping the previous count: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        if (!pendingWrites.isEmpty()) {
+            writePending();
+        }
+    }
+
+    private void evictExpired() {
+        long now = System.currentTimeMillis();
+        lastSeen.entrySet().removeIf(entry -> !activeUsers.isInWindow(entry.getValue(), now));
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.service;
+
+import com.example.dto.UserFilter;
+import com.example.dto.UserSummary;
+import com.example.model.User;
+import com.example.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Admin listing of users without loading entities: keyset pages of {@link UserSummary} over the
+ * primary key, and a full NDJSON export streamed from a JDBC cursor, so neither holds more than
+ * a page or a fetch batch in memory.
+ */
+@Service
+@Slf4j
+public class UserDirectoryService {
+
+    private static final String EXPORT_SQL = "SELECT id, username, role, created_at, last_active_at FROM users";
+
+    private static final RowMapper<UserSummary> SUMMARY_ROW = (rs, rowNum) -> new UserSummary(
+            rs.getLong("id"),
+            rs.getString("username"),
+            rs.getString("role") != null ? User.Role.valueOf(rs.getString("role")) : null,
+            rs.getTimestamp("created_at") != null ? rs.getTimestamp("created_at").toLocalDateTime() : null,
+            rs.getTimestamp("last_active_at") != null ? rs.getTimestamp("last_active_at").toLocalDateTime() : null);
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate cursorTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    // Rows are buffered by the generator; the default flush per value would hit the socket every row
+    private final ObjectWriter rowWriter;
+
+    public UserDirectoryService(UserRepository userRepository,
+                                DataSource dataSource,
+                                PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper,
+                                @Value("${user.export.fetch-size:1000}") int fetchSize) {
+        this.userRepository = userRepository;
+        // Postgres only streams with a fetch size inside a transaction; otherwise it buffers every row
+        this.cursorTemplate = new JdbcTemplate(dataSource);
+        this.cursorTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.rowWriter = objectMapper.writerFor(UserSummary.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Transactional(readOnly = true)
+    public List<UserSummary> page(UserFilter filter, long afterId, int limit) {
+        return userRepository.findSummaries(afterId, filter.role(), filter.createdFrom(), filter.createdTo(),
+                filter.activeSince(), PageRequest.of(0, limit));
+    }
+
+    /**
+     * Writes every matching user to {@code out} as one JSON object per line, in id order.
+     */
+    public long export(UserFilter filter, OutputStream out) {
+        List<Object> args = new ArrayList<>();
+        String sql = EXPORT_SQL + where(filter, args) + " ORDER BY id";
+        Long written = readOnlyTransaction.execute(status -> {
+            try (Stream<UserSummary> users = cursorTemplate.queryForStream(sql, SUMMARY_ROW, args.toArray());
+                 JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                // The response stream belongs to the container; only flush it
+                json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                long count = 0;
+                for (UserSummary user : (Iterable<UserSummary>) users::iterator) {
+                    rowWriter.writeValue(json, user);
+                    json.writeRaw('\n');
+                    count++;
+                }
+                json.flush();
+                return count;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        log.info("Exported {} users", written);
+        return written != null ? written : 0;
+    }
+
+    private static String where(UserFilter filter, List<Object> args) {
+        List<String> clauses = new ArrayList<>();
+        if (filter.role() != null) {
+            clauses.add("role = ?");
+            args.add(filter.role().name());
+        }
+        if (filter.createdFrom() != null) {
+            clauses.add("created_at >= ?");
+            args.add(Timestamp.valueOf(filter.createdFrom()));
+        }
+        if (filter.createdTo() != null) {
+            clauses.add("created_at < ?");
+            args.add(Timestamp.valueOf(filter.createdTo()));
+        }
+        if (filter.activeSince() != null) {
+            clauses.add("last_active_at >= ?");
+            args.add(Timestamp.valueOf(filter.activeSince()));
+        }
+        return clauses.isEmpty() ? "" : " WHERE " + String.join(" AND ", clauses);
+    }
+}